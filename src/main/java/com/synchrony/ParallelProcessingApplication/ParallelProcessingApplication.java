@@ -2,9 +2,13 @@ package com.synchrony.ParallelProcessingApplication;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.scheduling.annotation.EnableAsync;
 
-@SpringBootApplication
+// R2DBC is only used by the reactive users API (ReactiveUsersApplication); JPA owns the database here
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
+@ConfigurationPropertiesScan
 @EnableAsync
 public class ParallelProcessingApplication {
 
@@ -0,0 +1,97 @@
+package com.synchrony.ParallelProcessingApplication.cache;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import com.synchrony.ParallelProcessingApplication.dataconfig.CacheProperties;
+
+/**
+ * Optional Redis lease that lets a single node rebuild a missing cache key.
+ * <p>
+ * The lease is a {@code LOCK_{key}} entry set with NX and a TTL, holding a random token so only
+ * the holder can release it. Nodes that do not get the lease poll Redis for the rebuilt value for
+ * up to {@code lock-wait}, then load it themselves. When the lease is disabled, or Redis cannot be
+ * reached, every caller gets a no-op lease and loads as before.
+ */
+@Component
+public class CacheRebuildLease {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheRebuildLease.class);
+    private static final String LOCK_KEY_PREFIX = "LOCK_";
+
+    // Delete the lease only if it still holds our token, so an expired lease re-taken elsewhere is kept
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private static final Lease NO_OP = () -> {
+    };
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final CacheProperties.Stampede stampede;
+
+    public CacheRebuildLease(StringRedisTemplate stringRedisTemplate, RedisTemplate<String, Object> redisTemplate,
+            CacheProperties cacheProperties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redisTemplate = redisTemplate;
+        this.stampede = cacheProperties.getStampede();
+    }
+
+    // The lease to rebuild this key, or null when another node holds it
+    public Lease acquire(String cacheKey) {
+        if (!stampede.isLockEnabled()) {
+            return NO_OP;
+        }
+        String lockKey = LOCK_KEY_PREFIX + cacheKey;
+        String token = UUID.randomUUID().toString();
+        try {
+            if (!Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(lockKey, token, stampede.getLockTtl()))) {
+                return null;
+            }
+        } catch (Exception e) {
+            logger.warn("Rebuild lease unavailable for {}: {}", cacheKey, e.getMessage());
+            return NO_OP;
+        }
+        return () -> {
+            try {
+                stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(lockKey), token);
+            } catch (Exception e) {
+                logger.warn("Error while releasing rebuild lease for {}: {}", cacheKey, e.getMessage());
+            }
+        };
+    }
+
+    // Poll for the value rebuilt by the lease holder; null when it did not show up in time
+    public Object awaitRebuild(String cacheKey) {
+        long deadline = System.nanoTime() + stampede.getLockWait().toNanos();
+        try {
+            while (System.nanoTime() < deadline) {
+                Thread.sleep(stampede.getPollInterval().toMillis());
+                Object value = redisTemplate.opsForValue().get(cacheKey);
+                if (value != null) {
+                    return value;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.warn("Error while waiting for {} to be rebuilt: {}", cacheKey, e.getMessage());
+        }
+        return null;
+    }
+
+    @FunctionalInterface
+    public interface Lease extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
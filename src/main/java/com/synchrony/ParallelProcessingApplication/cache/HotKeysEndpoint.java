@@ -0,0 +1,41 @@
+package com.synchrony.ParallelProcessingApplication.cache;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import com.synchrony.ParallelProcessingApplication.service.UserService;
+
+/**
+ * {@code /actuator/hotkeys}: the heavy hitters among the {@code USER_{id}} keys read through
+ * {@code getUserById}, and {@code /actuator/hotkeys/{id}} for the estimate of a single user.
+ * Heavy hitters are the users the near cache pins.
+ */
+@Component
+@Endpoint(id = "hotkeys")
+public class HotKeysEndpoint {
+
+    private final UserAccessTracker accessTracker;
+
+    public HotKeysEndpoint(UserAccessTracker accessTracker) {
+        this.accessTracker = accessTracker;
+    }
+
+    @ReadOperation
+    public HotKeys hotKeys() {
+        return new HotKeys(accessTracker.reads(), accessTracker.sampleRate(), UserAccessTracker.DEPTH,
+                accessTracker.width(), accessTracker.heavyHitters());
+    }
+
+    @ReadOperation
+    public UserAccessTracker.HeavyHitter hotKey(@Selector Long id) {
+        return new UserAccessTracker.HeavyHitter(id, UserService.CACHE_KEY_PREFIX + id, accessTracker.estimate(id));
+    }
+
+    public record HotKeys(long reads, double sampleRate, int sketchDepth, int sketchWidth,
+            List<UserAccessTracker.HeavyHitter> heavyHitters) {
+    }
+}
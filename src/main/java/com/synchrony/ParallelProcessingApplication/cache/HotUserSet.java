@@ -0,0 +1,113 @@
+package com.synchrony.ParallelProcessingApplication.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+
+import com.synchrony.ParallelProcessingApplication.dataconfig.CacheProperties;
+
+/**
+ * Recently read user IDs, shared by every node in the {@code USERS_HOT} Redis sorted set.
+ * <p>
+ * Reads only add the ID to a local set; every {@code record-interval} the IDs collected since the
+ * last flush are written with one ZADD scored by the flush time, and the set is trimmed to the
+ * {@code hot-set-size} most recent members. The startup warm-up preloads the top of this set.
+ */
+@Component
+public class HotUserSet {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotUserSet.class);
+    public static final String KEY = "USERS_HOT";
+    // Bounds the local set between flushes; IDs read beyond it are simply not recorded this interval
+    private static final int MAX_PENDING = 100_000;
+
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final StringRedisTemplate stringRedisTemplate;
+    private final boolean enabled;
+    private final int hotSetSize;
+    private final Duration recordInterval;
+    private ScheduledExecutorService scheduler;
+
+    public HotUserSet(StringRedisTemplate stringRedisTemplate, CacheProperties cacheProperties) {
+        CacheProperties.WarmUp warmUp = cacheProperties.getWarmUp();
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.enabled = warmUp.isEnabled();
+        this.hotSetSize = warmUp.getHotSetSize();
+        this.recordInterval = warmUp.getRecordInterval();
+    }
+
+    public void record(Long id) {
+        if (enabled && id != null && pending.size() < MAX_PENDING) {
+            pending.add(id);
+        }
+    }
+
+    // The n most recently read IDs, most recent first
+    public List<Long> topIds(int n) {
+        Set<String> members = stringRedisTemplate.opsForZSet().reverseRange(KEY, 0, n - 1L);
+        List<Long> ids = new ArrayList<>(members == null ? 0 : members.size());
+        if (members != null) {
+            members.forEach(member -> ids.add(Long.valueOf(member)));
+        }
+        return ids;
+    }
+
+    // Write the IDs read since the last flush and drop everything past the hot set size
+    public void flush() {
+        Set<ZSetOperations.TypedTuple<String>> members = new HashSet<>();
+        double now = System.currentTimeMillis();
+        for (Iterator<Long> ids = pending.iterator(); ids.hasNext();) {
+            members.add(new DefaultTypedTuple<>(String.valueOf(ids.next()), now));
+            ids.remove();
+        }
+        if (members.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.opsForZSet().add(KEY, members);
+            stringRedisTemplate.opsForZSet().removeRange(KEY, 0, -(hotSetSize + 1L));
+        } catch (Exception e) {
+            logger.warn("Error while recording {} hot user IDs: {}", members.size(), e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || recordInterval.isZero() || recordInterval.isNegative()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hot-user-set");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = recordInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // On close rather than @PreDestroy: the Redis connection factory is already stopped by then
+    @EventListener(ContextClosedEvent.class)
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        flush();
+    }
+}
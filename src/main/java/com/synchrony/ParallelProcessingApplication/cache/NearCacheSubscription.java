@@ -0,0 +1,61 @@
+package com.synchrony.ParallelProcessingApplication.cache;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Starts the near cache invalidation subscription without making Redis a startup dependency.
+ * <p>
+ * The listener container fails its start when Redis is unreachable, so it is started here once the
+ * application is ready and retried in the background until the subscription is established. Until
+ * then near cache entries are only bounded by their TTL for writes made on other nodes.
+ */
+@Component
+public class NearCacheSubscription {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearCacheSubscription.class);
+    private static final long RETRY_SECONDS = 5;
+
+    private final RedisMessageListenerContainer container;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "near-cache-subscription");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public NearCacheSubscription(RedisMessageListenerContainer nearCacheInvalidationContainer) {
+        this.container = nearCacheInvalidationContainer;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        scheduler.execute(this::tryStart);
+    }
+
+    private void tryStart() {
+        try {
+            container.start();
+            logger.info("Subscribed to near cache invalidations");
+        } catch (Exception e) {
+            container.stop();
+            logger.warn("Near cache invalidation subscription failed ({}), retrying in {}s", e.getMessage(),
+                    RETRY_SECONDS);
+            scheduler.schedule(this::tryStart, RETRY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,221 @@
+package com.synchrony.ParallelProcessingApplication.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import com.synchrony.ParallelProcessingApplication.dataconfig.CacheProperties;
+import com.synchrony.ParallelProcessingApplication.service.UserService;
+import com.synchrony.ParallelProcessingApplication.service.UserServiceMetrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Single write path for user cache values in Redis.
+ * <p>
+ * Every value is written with the TTL of its key family, spread by a random jitter so entries
+ * cached together do not all expire together. A value whose serialized form exceeds the family's
+ * payload limit is not cached; its key is deleted instead so an older value cannot outlive it.
+ * Per family it publishes {@code users.cache.writes}, {@code users.cache.write.bytes},
+ * {@code users.cache.writes.skipped} and, from a periodic SCAN, {@code users.cache.keys}.
+ */
+@Component
+public class RedisCachePolicy {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisCachePolicy.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final UserServiceMetrics metrics;
+    private final Map<String, KeyFamily> families = new LinkedHashMap<>();
+    private final Duration keyCountInterval;
+    private ScheduledExecutorService scheduler;
+
+    public RedisCachePolicy(RedisTemplate<String, Object> redisTemplate, CacheProperties cacheProperties,
+            UserServiceMetrics metrics, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.metrics = metrics;
+        CacheProperties.Policy policy = cacheProperties.getPolicy();
+        this.keyCountInterval = policy.getKeyCountInterval();
+        families.put(UserService.CACHE_KEY_SEGMENT_PREFIX,
+                new KeyFamily("segment", UserService.CACHE_KEY_SEGMENT_PREFIX, policy.getSegment(), meterRegistry));
+        families.put(UserService.CACHE_KEY_EMAIL_PREFIX,
+                new KeyFamily("email", UserService.CACHE_KEY_EMAIL_PREFIX, policy.getEmail(), meterRegistry));
+        families.put(UserService.CACHE_KEY_PREFIX,
+                new KeyFamily("user", UserService.CACHE_KEY_PREFIX, policy.getUser(), meterRegistry));
+    }
+
+    // SET one value with its family's TTL
+    public void set(String key, Object value) {
+        set(key, value, null);
+    }
+
+    // SET one value with the given TTL instead, e.g. for a copy that may be stale; null for the family's
+    public void set(String key, Object value, Duration ttl) {
+        metrics.redis("set", () -> redisTemplate.execute((RedisCallback<Object>) connection -> {
+            set(connection, key, value, ttl);
+            return null;
+        }));
+    }
+
+    // SET many values in a single pipelined round trip
+    public void setAll(Map<String, ?> values) {
+        setAll(values, null);
+    }
+
+    public void setAll(Map<String, ?> values, Duration ttl) {
+        if (values.isEmpty()) {
+            return;
+        }
+        metrics.redis("setPipelined", () -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            values.forEach((key, value) -> set(connection, key, value, ttl));
+            return null;
+        }));
+    }
+
+    // SET on an open, possibly pipelined, connection
+    public void set(RedisConnection connection, String key, Object value) {
+        set(connection, key, value, null);
+    }
+
+    private void set(RedisConnection connection, String key, Object value, Duration ttl) {
+        KeyFamily family = familyOf(key);
+        byte[] rawKey = rawKey(key);
+        @SuppressWarnings("unchecked")
+        byte[] rawValue = ((RedisSerializer<Object>) redisTemplate.getValueSerializer()).serialize(value);
+        if (rawValue.length > family.limits.getMaxPayloadBytes()) {
+            logger.warn("Not caching {}: {} bytes is over the {} byte limit", key, rawValue.length,
+                    family.limits.getMaxPayloadBytes());
+            family.skipped.increment();
+            connection.keyCommands().del(rawKey);
+            return;
+        }
+        Duration expiry = ttl != null ? ttl : family.limits.jitteredTtl();
+        connection.stringCommands().set(rawKey, rawValue, Expiration.from(expiry), SetOption.upsert());
+        family.writes.increment();
+        family.bytes.record(rawValue.length);
+    }
+
+    @SuppressWarnings("unchecked")
+    public byte[] rawKey(String key) {
+        return ((RedisSerializer<String>) redisTemplate.getKeySerializer()).serialize(key);
+    }
+
+    private KeyFamily familyOf(String key) {
+        for (Map.Entry<String, KeyFamily> family : families.entrySet()) {
+            if (key.startsWith(family.getKey())) {
+                return family.getValue();
+            }
+        }
+        throw new IllegalArgumentException("No cache policy for key " + key);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startKeyCounts() {
+        if (keyCountInterval.isZero() || keyCountInterval.isNegative()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-key-count");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::countKeys, 0, keyCountInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // SCAN is incremental, so this does not block Redis the way KEYS would
+    public void countKeys() {
+        for (KeyFamily family : families.values()) {
+            // Keys are JDK-serialized, so the prefix is matched anywhere in the raw key and checked afterwards
+            ScanOptions options = ScanOptions.scanOptions().match("*" + family.prefix + "*").count(1000).build();
+            try {
+                long count = redisTemplate.execute((RedisCallback<Long>) connection -> {
+                    long keys = 0;
+                    try (Cursor<byte[]> rawKeys = connection.keyCommands().scan(options)) {
+                        while (rawKeys.hasNext()) {
+                            String key = keyOf(rawKeys.next());
+                            if (key != null && key.startsWith(family.prefix)) {
+                                keys++;
+                            }
+                        }
+                    }
+                    return keys;
+                });
+                family.keys.set(count);
+            } catch (Exception e) {
+                logger.warn("Error while counting {} cache keys: {}", family.name, e.getMessage());
+            }
+        }
+    }
+
+    // Null for keys other serializers wrote, such as the plain-string LOCK_ rebuild leases
+    @SuppressWarnings("unchecked")
+    private String keyOf(byte[] rawKey) {
+        try {
+            return ((RedisSerializer<String>) redisTemplate.getKeySerializer()).deserialize(rawKey);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static final class KeyFamily {
+        private final String name;
+        private final String prefix;
+        private final CacheProperties.KeyFamily limits;
+        private final Counter writes;
+        private final Counter skipped;
+        private final DistributionSummary bytes;
+        private final AtomicLong keys = new AtomicLong();
+
+        private KeyFamily(String name, String prefix, CacheProperties.KeyFamily limits, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.prefix = prefix;
+            this.limits = limits;
+            this.writes = Counter.builder("users.cache.writes")
+                    .description("Values written to Redis")
+                    .tag("family", name)
+                    .register(meterRegistry);
+            this.skipped = Counter.builder("users.cache.writes.skipped")
+                    .description("Values not cached because they exceed the payload limit")
+                    .tag("family", name)
+                    .register(meterRegistry);
+            this.bytes = DistributionSummary.builder("users.cache.write.bytes")
+                    .description("Serialized size of values written to Redis")
+                    .baseUnit("bytes")
+                    .tag("family", name)
+                    .register(meterRegistry);
+            Gauge.builder("users.cache.keys", keys, AtomicLong::get)
+                    .description("Keys in Redis as of the last scan")
+                    .tag("family", name)
+                    .register(meterRegistry);
+        }
+    }
+}
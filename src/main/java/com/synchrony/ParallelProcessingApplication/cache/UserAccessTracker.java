@@ -0,0 +1,249 @@
+package com.synchrony.ParallelProcessingApplication.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.synchrony.ParallelProcessingApplication.dataconfig.CacheProperties;
+import com.synchrony.ParallelProcessingApplication.service.UserService;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Read frequency of user IDs and the current top-K heavy hitters.
+ * <p>
+ * Counts live in a count-min sketch of {@value #DEPTH} rows of {@code width} atomic counters, so
+ * recording a read is a few lock-free increments and never allocates; an estimate may over-count
+ * (hash collisions) but never under-counts. Candidates for the top K are kept in 16 stripes chosen
+ * by ID hash. A read takes its stripe's lock only when its estimate beats the smallest count the
+ * full stripe holds, so the IDs that are already heavy hitters, the most contended ones, are
+ * checked with a map lookup alone. Every {@code refresh-interval} the stripes are merged into the
+ * published top-K list, and every {@code decay-interval} all counts are halved so the list follows
+ * current traffic.
+ */
+@Component
+public class UserAccessTracker {
+
+    public static final int DEPTH = 4;
+    private static final int STRIPES = 16;
+
+    private final boolean enabled;
+    private final int width;
+    private final int topK;
+    private final double sampleRate;
+    private final Duration refreshInterval;
+    private final Duration decayInterval;
+    private final AtomicLongArray counters;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final LongAdder reads = new LongAdder();
+    private volatile List<HeavyHitter> heavyHitters = List.of();
+    private volatile Set<Long> heavyHitterIds = Set.of();
+    private ScheduledExecutorService scheduler;
+
+    public UserAccessTracker(CacheProperties cacheProperties, MeterRegistry meterRegistry) {
+        CacheProperties.HotKeys hotKeys = cacheProperties.getHotKeys();
+        this.enabled = hotKeys.isEnabled();
+        this.width = Integer.highestOneBit(Math.max(hotKeys.getWidth(), 64)); // a power of two, for masking
+        this.topK = hotKeys.getTopK();
+        this.sampleRate = hotKeys.getSampleRate();
+        this.refreshInterval = hotKeys.getRefreshInterval();
+        this.decayInterval = hotKeys.getDecayInterval();
+        this.counters = new AtomicLongArray(enabled ? DEPTH * width : 0);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(topK);
+        }
+        FunctionCounter.builder("users.access.reads", reads, LongAdder::sum)
+                .description("User reads counted by the access tracker, after sampling")
+                .register(meterRegistry);
+        Gauge.builder("users.access.top.estimate", this, tracker -> {
+                    List<HeavyHitter> top = tracker.heavyHitters;
+                    return top.isEmpty() ? 0 : top.get(0).estimate();
+                })
+                .description("Estimated reads of the hottest user since counts were last halved")
+                .register(meterRegistry);
+    }
+
+    public void record(Long id) {
+        if (!enabled || id == null || sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        reads.increment();
+        long hash = hash(id);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(hash, row)));
+        }
+        stripes[stripe(hash)].offer(id, estimate, this);
+    }
+
+    // Estimated reads of one ID since counts were last halved, scaled for sampling
+    public long estimate(Long id) {
+        return enabled ? Math.round(rawEstimate(id) / sampleRate) : 0;
+    }
+
+    // Heavy hitters as of the last refresh, hottest first
+    public List<HeavyHitter> heavyHitters() {
+        return heavyHitters;
+    }
+
+    public boolean isHeavyHitter(Long id) {
+        return heavyHitterIds.contains(id);
+    }
+
+    public long reads() {
+        return reads.sum();
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public double sampleRate() {
+        return sampleRate;
+    }
+
+    private long rawEstimate(Long id) {
+        long hash = hash(id);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.get(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    // Merge the stripes into the published top-K list
+    public void refresh() {
+        List<HeavyHitter> candidates = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            for (Long id : stripe.counts.keySet()) {
+                candidates.add(new HeavyHitter(id, UserService.CACHE_KEY_PREFIX + id, estimate(id)));
+            }
+        }
+        candidates.sort(Comparator.comparingLong(HeavyHitter::estimate).reversed());
+        List<HeavyHitter> top = List.copyOf(candidates.subList(0, Math.min(topK, candidates.size())));
+        Set<Long> ids = new HashSet<>();
+        top.forEach(hitter -> ids.add(hitter.id()));
+        heavyHitters = top;
+        heavyHitterIds = Set.copyOf(ids);
+    }
+
+    // Halve every count; racing increments may be lost, which only makes an estimate slightly low for a while
+    public void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, counters.get(i) >> 1);
+        }
+        for (Stripe stripe : stripes) {
+            stripe.decay();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-access-tracker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refresh, refreshInterval.toMillis(), refreshInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::decay, decayInterval.toMillis(), decayInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    // SplitMix64 finalizer; the two halves give every row its own index (Kirsch-Mitzenmacher)
+    private static long hash(long id) {
+        long z = id + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private int index(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        return row * width + ((h1 + row * h2) & (width - 1));
+    }
+
+    private static int stripe(long hash) {
+        return (int) (hash >>> 60) & (STRIPES - 1);
+    }
+
+    public record HeavyHitter(Long id, String key, long estimate) {
+    }
+
+    // Up to capacity candidate IDs; the counts are refreshed from the sketch whenever one must be evicted
+    private static final class Stripe {
+
+        private final Map<Long, Long> counts = new ConcurrentHashMap<>();
+        private final int capacity;
+        private volatile long floor; // smallest count held while full; lower estimates cannot get in
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void offer(Long id, long estimate, UserAccessTracker tracker) {
+            if (estimate <= floor || counts.containsKey(id)) {
+                return;
+            }
+            synchronized (this) {
+                if (counts.containsKey(id)) {
+                    return;
+                }
+                counts.put(id, estimate);
+                if (counts.size() <= capacity) {
+                    return;
+                }
+                Long coldest = null;
+                long coldestCount = Long.MAX_VALUE;
+                for (Map.Entry<Long, Long> candidate : counts.entrySet()) {
+                    long count = tracker.rawEstimate(candidate.getKey());
+                    candidate.setValue(count);
+                    if (count < coldestCount) {
+                        coldest = candidate.getKey();
+                        coldestCount = count;
+                    }
+                }
+                counts.remove(coldest);
+                long newFloor = Long.MAX_VALUE;
+                for (long count : counts.values()) {
+                    newFloor = Math.min(newFloor, count);
+                }
+                floor = newFloor;
+            }
+        }
+
+        synchronized void decay() {
+            floor >>= 1;
+            counts.replaceAll((id, count) -> count >> 1);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.synchrony.ParallelProcessingApplication.cache;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Hit/miss counters for each user cache tier, published as {@code users.cache.requests}
+ * with {@code tier} (l1/l2) and {@code result} (hit/miss) tags.
+ */
+@Component
+public class UserCacheMetrics {
+
+    public static final String TIER_L1 = "l1";
+    public static final String TIER_L2 = "l2";
+
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+
+    public UserCacheMetrics(MeterRegistry meterRegistry) {
+        this.l1Hits = counter(meterRegistry, TIER_L1, "hit");
+        this.l1Misses = counter(meterRegistry, TIER_L1, "miss");
+        this.l2Hits = counter(meterRegistry, TIER_L2, "hit");
+        this.l2Misses = counter(meterRegistry, TIER_L2, "miss");
+    }
+
+    public void hit(String tier) {
+        (TIER_L1.equals(tier) ? l1Hits : l2Hits).increment();
+    }
+
+    public void miss(String tier) {
+        (TIER_L1.equals(tier) ? l1Misses : l2Misses).increment();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("users.cache.requests")
+                .description("User cache lookups per tier")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
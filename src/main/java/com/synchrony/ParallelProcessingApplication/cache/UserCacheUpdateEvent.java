@@ -0,0 +1,30 @@
+package com.synchrony.ParallelProcessingApplication.cache;
+
+import com.synchrony.ParallelProcessingApplication.model.UserEntity;
+
+/**
+ * Published inside a write transaction for a user whose cached copy must change; a {@code null}
+ * user means the user was deleted. {@code previousEmail} is set when the write moved the user off
+ * an email, so its email key can be dropped. The change itself travels through the outbox row written in
+ * the same transaction; once it commits, {@link UserCacheWriteBehind} drops the local near cache
+ * entry and flushes the outbox.
+ */
+public record UserCacheUpdateEvent(Long id, UserEntity user, String previousEmail) {
+
+    public static UserCacheUpdateEvent saved(UserEntity user) {
+        return new UserCacheUpdateEvent(user.getId(), user, null);
+    }
+
+    // A saved user whose email changed from previousEmail
+    public static UserCacheUpdateEvent saved(UserEntity user, String previousEmail) {
+        return new UserCacheUpdateEvent(user.getId(), user, previousEmail);
+    }
+
+    public static UserCacheUpdateEvent deleted(Long id) {
+        return new UserCacheUpdateEvent(id, null, null);
+    }
+
+    public static UserCacheUpdateEvent deleted(Long id, String email) {
+        return new UserCacheUpdateEvent(id, null, email);
+    }
+}
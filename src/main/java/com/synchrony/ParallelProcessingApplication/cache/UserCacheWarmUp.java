@@ -0,0 +1,156 @@
+package com.synchrony.ParallelProcessingApplication.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.synchrony.ParallelProcessingApplication.dataconfig.CacheProperties;
+import com.synchrony.ParallelProcessingApplication.model.UserLookupResult;
+import com.synchrony.ParallelProcessingApplication.service.UserService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Startup warm-up of the user caches from the {@link HotUserSet}.
+ * <p>
+ * Spring Boot reports readiness only once every {@code ApplicationRunner} has returned, so the
+ * instance takes traffic with the hot users already in the near cache and Redis instead of sending
+ * every first read to MySQL. The hot IDs are looked up in chunks through
+ * {@link UserService#preloadUsers}: one MGET per chunk, one DB query for its misses on a read
+ * replica when there is one, then pipelined SETs. At most {@code parallelism} chunks run at a time
+ * on {@code dbExecutor} so the warm-up stays a small share of the connection pool, and it stops
+ * when {@code time-budget} runs out or a lookup fails (including an open database breaker).
+ * <p>
+ * Progress: {@code users.cache.warmup.remaining}, {@code users.cache.warmup.users} by
+ * {@code outcome} (cached or missing) and the {@code users.cache.warmup} timer by {@code outcome}
+ * (complete, budget_exceeded or failed).
+ */
+@Component
+public class UserCacheWarmUp implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCacheWarmUp.class);
+
+    private final HotUserSet hotUsers;
+    private final UserService userService;
+    private final Executor dbExecutor;
+    private final CacheProperties.WarmUp warmUp;
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong remaining = new AtomicLong();
+    private final Counter cached;
+    private final Counter missing;
+
+    public UserCacheWarmUp(HotUserSet hotUsers, UserService userService, @Qualifier("dbExecutor") Executor dbExecutor,
+            CacheProperties cacheProperties, MeterRegistry meterRegistry) {
+        this.hotUsers = hotUsers;
+        this.userService = userService;
+        this.dbExecutor = dbExecutor;
+        this.warmUp = cacheProperties.getWarmUp();
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("users.cache.warmup.remaining", remaining, AtomicLong::get)
+                .description("Hot users the startup warm-up has yet to load")
+                .register(meterRegistry);
+        this.cached = users("cached");
+        this.missing = users("missing");
+    }
+
+    private Counter users(String outcome) {
+        return Counter.builder("users.cache.warmup.users")
+                .description("Hot users loaded by the startup warm-up, by whether they still exist")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (warmUp.isEnabled()) {
+            warmUp();
+        }
+    }
+
+    // Preload the hot set within the time budget; returns the outcome
+    public String warmUp() {
+        long start = System.nanoTime();
+        long deadline = start + warmUp.getTimeBudget().toNanos();
+        List<Long> ids;
+        try {
+            ids = hotUsers.topIds(warmUp.getHotSetSize());
+        } catch (Exception e) {
+            logger.warn("Skipping cache warm-up, the hot user set is unavailable: {}", e.getMessage());
+            return record("failed", start);
+        }
+        Queue<List<Long>> chunks = new ConcurrentLinkedQueue<>();
+        for (int from = 0; from < ids.size(); from += warmUp.getChunkSize()) {
+            chunks.add(new ArrayList<>(ids.subList(from, Math.min(ids.size(), from + warmUp.getChunkSize()))));
+        }
+        remaining.set(ids.size());
+        logger.info("Warming the user caches with {} hot users in {} chunks", ids.size(), chunks.size());
+
+        AtomicBoolean stop = new AtomicBoolean();
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(warmUp.getParallelism(), chunks.size()); i++) {
+            workers.add(CompletableFuture.runAsync(() -> drain(chunks, deadline, stop), dbExecutor));
+        }
+        String outcome;
+        try {
+            CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new))
+                    .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            outcome = remaining.get() == 0 ? "complete" : "budget_exceeded";
+        } catch (TimeoutException e) {
+            outcome = "budget_exceeded";
+        } catch (ExecutionException e) {
+            logger.warn("Cache warm-up stopped: {}", e.getCause().getMessage());
+            outcome = "failed";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = "failed";
+        } finally {
+            stop.set(true); // chunks already running finish, no new ones start
+        }
+        logger.info("Cache warm-up {} after {} ms, {} hot users not loaded", outcome,
+                Duration.ofNanos(System.nanoTime() - start).toMillis(), remaining.get());
+        return record(outcome, start);
+    }
+
+    private void drain(Queue<List<Long>> chunks, long deadline, AtomicBoolean stop) {
+        List<Long> chunk;
+        while (!stop.get() && System.nanoTime() < deadline && (chunk = chunks.poll()) != null) {
+            try {
+                for (UserLookupResult result : userService.preloadUsers(chunk)) {
+                    (result.isFound() ? cached : missing).increment();
+                }
+            } catch (RuntimeException e) {
+                stop.set(true);
+                throw e;
+            }
+            remaining.addAndGet(-chunk.size());
+        }
+    }
+
+    private String record(String outcome, long start) {
+        Timer.builder("users.cache.warmup")
+                .description("Startup warm-up of the user caches")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return outcome;
+    }
+}
@@ -0,0 +1,211 @@
+package com.synchrony.ParallelProcessingApplication.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.synchrony.ParallelProcessingApplication.dataconfig.CacheProperties;
+import com.synchrony.ParallelProcessingApplication.model.UserCacheOutbox;
+import com.synchrony.ParallelProcessingApplication.model.UserEntity;
+import com.synchrony.ParallelProcessingApplication.repository.UserCacheOutboxRepository;
+import com.synchrony.ParallelProcessingApplication.repository.UserRepository;
+import com.synchrony.ParallelProcessingApplication.service.ThreadService;
+import com.synchrony.ParallelProcessingApplication.service.UserService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Write-behind path from committed user writes to Redis, fed by the {@link UserCacheOutbox} table.
+ * <p>
+ * Every user write adds an outbox row in its own transaction, so a change reaches Redis even when
+ * it was made by another node, by SQL outside the application, or before a crash. A single thread
+ * per node drains the outbox: it locks the oldest {@code batch-size} rows, reads the current state
+ * of their users from the database, writes those users and their email keys (or deletes the keys of
+ * users that are gone, and of emails users moved off) in one pipelined round trip, invalidates the
+ * affected segments and deletes the rows, all before the lock is released. Rows of a failed batch
+ * stay in the outbox and are retried, so delivery is at least once; applying a row twice only
+ * rewrites the current value. The thread is woken right after a local commit and otherwise polls
+ * every {@code poll-interval}.
+ * <p>
+ * {@code users.cache.writebehind.lag} is the time from the outbox insert to the Redis write, as
+ * measured by the clocks of the two nodes involved.
+ */
+@Component
+public class UserCacheWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCacheWriteBehind.class);
+    private static final long SHUTDOWN_WAIT_SECONDS = 5;
+
+    private final AtomicBoolean wakeUpQueued = new AtomicBoolean();
+    private final AtomicLong pending = new AtomicLong();
+    private ScheduledExecutorService scheduler;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ThreadService threadService;
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private final UserCacheOutboxRepository outboxRepository;
+    private final UserNearCache userNearCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration pollInterval;
+
+    private final Timer lag;
+    private final Counter flushed;
+    private final Counter coalesced;
+    private final Counter failed;
+
+    public UserCacheWriteBehind(RedisTemplate<String, Object> redisTemplate, ThreadService threadService,
+            UserService userService, UserRepository userRepository, UserCacheOutboxRepository outboxRepository,
+            UserNearCache userNearCache, PlatformTransactionManager transactionManager,
+            CacheProperties cacheProperties, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.threadService = threadService;
+        this.userService = userService;
+        this.userRepository = userRepository;
+        this.outboxRepository = outboxRepository;
+        this.userNearCache = userNearCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = cacheProperties.getWriteBehind().getBatchSize();
+        this.pollInterval = cacheProperties.getWriteBehind().getPollInterval();
+
+        Gauge.builder("users.cache.writebehind.pending", pending, AtomicLong::get)
+                .description("Outbox rows waiting to be flushed to Redis, as of the last poll")
+                .register(meterRegistry);
+        this.lag = Timer.builder("users.cache.writebehind.lag")
+                .description("Time from the outbox insert until the user cache write reached Redis")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.flushed = Counter.builder("users.cache.writebehind.flushed")
+                .description("User cache writes flushed to Redis")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("users.cache.writebehind.coalesced")
+                .description("Outbox rows folded into a flush of the same user")
+                .register(meterRegistry);
+        this.failed = Counter.builder("users.cache.writebehind.failed")
+                .description("Outbox batches that failed and were left for a retry")
+                .register(meterRegistry);
+    }
+
+    // Defaults to AFTER_COMMIT, when the outbox row is visible; writes made outside a transaction
+    // are applied immediately
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserCacheUpdate(UserCacheUpdateEvent event) {
+        userNearCache.invalidate(event.id()); // the local copy is stale from now on
+        wakeUp();
+    }
+
+    // Drain the outbox now rather than at the next poll; wake-ups while one is queued fold into it
+    private void wakeUp() {
+        ScheduledExecutorService current = scheduler;
+        if (current == null || !wakeUpQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            current.execute(() -> {
+                wakeUpQueued.set(false);
+                drain();
+            });
+        } catch (RejectedExecutionException e) {
+            wakeUpQueued.set(false); // shutting down; the rows are picked up after the restart
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            drain();
+            try {
+                pending.set(outboxRepository.count());
+            } catch (Exception e) {
+                logger.warn("Error while counting cache outbox rows: {}", e.getMessage());
+            }
+        }, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Flush full batches until the outbox is empty or a batch fails
+    private void drain() {
+        try {
+            while (flush() == batchSize) {
+                // keep going
+            }
+        } catch (Exception e) {
+            failed.increment();
+            logger.error("Error while flushing cached users from the outbox: {}", e.getMessage(), e);
+        }
+    }
+
+    // Apply one batch of outbox rows; returns how many rows it removed
+    public int flush() {
+        Set<Long> ids = new LinkedHashSet<>();
+        List<UserCacheOutbox> rows = transactionTemplate.execute(status -> {
+            List<UserCacheOutbox> batch = outboxRepository.lockOldest(PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return batch;
+            }
+            batch.forEach(row -> ids.add(row.getUserId()));
+            Set<String> staleEmails = new HashSet<>();
+            batch.stream().map(UserCacheOutbox::getPreviousEmail).filter(Objects::nonNull).forEach(staleEmails::add);
+
+            // Current state, so a retried or reordered row can never write an older value
+            Map<Long, UserEntity> users = new HashMap<>();
+            ids.forEach(id -> users.put(id, null)); // null deletes the key of a user that is gone
+            userRepository.findAllById(ids).forEach(user -> users.put(user.getId(), user));
+            threadService.writeCache(users, staleEmails, redisTemplate);
+            userService.invalidateSegmentCaches(ids);
+            outboxRepository.deleteAllInBatch(batch);
+            return batch;
+        });
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        Instant now = Instant.now();
+        rows.forEach(row -> lag.record(Duration.between(row.getCreatedAt(), now)));
+        flushed.increment(ids.size());
+        coalesced.increment(rows.size() - ids.size());
+        userNearCache.evictEverywhere(ids);
+        return rows.size();
+    }
+
+    // Let a running flush finish while Redis is still connected; what is left stays in the outbox
+    @EventListener(ContextClosedEvent.class)
+    public void shutdown() throws InterruptedException {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+}
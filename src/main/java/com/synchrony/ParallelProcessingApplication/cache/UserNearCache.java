@@ -0,0 +1,178 @@
+package com.synchrony.ParallelProcessingApplication.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.synchrony.ParallelProcessingApplication.dataconfig.CacheProperties;
+import com.synchrony.ParallelProcessingApplication.model.UserEntity;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * In-process L1 cache for users that sits in front of the Redis L2.
+ * <p>
+ * Entries are bounded by size (Caffeine's W-TinyLFU eviction) and expire after a fixed TTL.
+ * Writes evict the entry locally and broadcast the ID (or a comma-separated batch of IDs) over
+ * Redis pub/sub so every other node drops its copy as well.
+ * <p>
+ * Heavy hitters of the {@link UserAccessTracker} are pinned when they are cached: they keep their
+ * copy for {@code app.cache.hot-keys.pinned-ttl} instead of the near TTL and weigh nothing, so size
+ * eviction never drops them. Invalidations still apply to them.
+ * <p>
+ * Hot entries are refreshed before they expire with probabilistic early expiration (XFetch): a
+ * lookup reports a miss early with a probability that grows as the entry nears its TTL and with
+ * the time the entry took to load, so one request reloads it while the others keep hitting.
+ */
+@Component
+public class UserNearCache implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserNearCache.class);
+
+    private final Cache<Long, NearEntry> cache;
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final long pinnedTtlNanos;
+    private final double earlyRefreshBeta;
+    private final String invalidationChannel;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final UserCacheMetrics cacheMetrics;
+    private final UserAccessTracker accessTracker;
+
+    public UserNearCache(CacheProperties cacheProperties, StringRedisTemplate stringRedisTemplate,
+            UserCacheMetrics cacheMetrics, UserAccessTracker accessTracker, MeterRegistry meterRegistry) {
+        CacheProperties.Near near = cacheProperties.getNear();
+        this.enabled = near.isEnabled();
+        this.invalidationChannel = near.getInvalidationChannel();
+        this.ttlNanos = near.getTtl().toNanos();
+        this.pinnedTtlNanos = Math.max(ttlNanos, cacheProperties.getHotKeys().getPinnedTtl().toNanos());
+        this.earlyRefreshBeta = near.getEarlyRefreshBeta();
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.cacheMetrics = cacheMetrics;
+        this.accessTracker = accessTracker;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(near.getMaxSize())
+                .weigher((Long id, NearEntry entry) -> entry.pinned() ? 0 : 1)
+                .expireAfter(new Expiry<Long, NearEntry>() {
+                    @Override
+                    public long expireAfterCreate(Long id, NearEntry entry, long currentTime) {
+                        return entry.expiresAt() - System.nanoTime();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long id, NearEntry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long id, NearEntry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users.near");
+    }
+
+    // Look up a user in the local tier, null when absent or disabled
+    public UserEntity get(Long id) {
+        if (!enabled) {
+            return null;
+        }
+        NearEntry entry = cache.getIfPresent(id);
+        if (entry == null || refreshEarly(entry)) {
+            cacheMetrics.miss(UserCacheMetrics.TIER_L1);
+            return null;
+        }
+        cacheMetrics.hit(UserCacheMetrics.TIER_L1);
+        return entry.user();
+    }
+
+    // The local copy even when it is due for an early refresh, for when the user cannot be reloaded
+    public UserEntity peek(Long id) {
+        NearEntry entry = enabled ? cache.getIfPresent(id) : null;
+        return entry != null ? entry.user() : null;
+    }
+
+    public void put(UserEntity user) {
+        put(user, 0L);
+    }
+
+    // loadNanos is how long the value took to fetch; costlier entries are refreshed earlier
+    public void put(UserEntity user, long loadNanos) {
+        if (enabled && user != null && user.getId() != null) {
+            boolean pinned = accessTracker.isHeavyHitter(user.getId());
+            cache.put(user.getId(), new NearEntry(user, loadNanos,
+                    System.nanoTime() + (pinned ? pinnedTtlNanos : ttlNanos), pinned));
+        }
+    }
+
+    // XFetch: refresh when now - loadNanos * beta * ln(rand) passes the expiry
+    private boolean refreshEarly(NearEntry entry) {
+        if (earlyRefreshBeta <= 0 || entry.loadNanos() <= 0) {
+            return false;
+        }
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble(); // (0, 1]
+        return System.nanoTime() - entry.loadNanos() * earlyRefreshBeta * Math.log(random) >= entry.expiresAt();
+    }
+
+    // Drop the local copy only
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    // Drop the local copy and tell every other node to drop theirs
+    public void evictEverywhere(Long id) {
+        invalidate(id);
+        try {
+            stringRedisTemplate.convertAndSend(invalidationChannel, String.valueOf(id));
+        } catch (Exception e) {
+            logger.error("Error while broadcasting near cache invalidation for ID: {}", id, e);
+        }
+    }
+
+    // Same as evictEverywhere(id) for a batch, in a single broadcast message
+    public void evictEverywhere(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        cache.invalidateAll(ids);
+        try {
+            stringRedisTemplate.convertAndSend(invalidationChannel,
+                    ids.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        } catch (Exception e) {
+            logger.error("Error while broadcasting near cache invalidation for {} IDs", ids.size(), e);
+        }
+    }
+
+    public String getInvalidationChannel() {
+        return invalidationChannel;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        for (String id : body.split(",")) {
+            try {
+                invalidate(Long.valueOf(id));
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring malformed near cache invalidation: {}", id);
+            }
+        }
+    }
+
+    private record NearEntry(UserEntity user, long loadNanos, long expiresAt, boolean pinned) {
+    }
+}
@@ -0,0 +1,264 @@
+package com.synchrony.ParallelProcessingApplication.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.synchrony.ParallelProcessingApplication.model.UserEntity;
+
+/**
+ * Compact binary Redis value serializer for users and lists of users.
+ * <p>
+ * Layout: {@code MAGIC, schema version, value type, flags, payload}. A user is a presence bitmask
+ * followed by a varint ID, length-prefixed UTF-8 name and email and, since schema 2, a varint
+ * version; a list is a varint count followed by users. Schema 1 values are still read; nodes that
+ * only know schema 1 reject schema 2 values and load those users from the database. Payloads
+ * larger than the compression threshold are deflated at the fastest level, prefixed with their
+ * inflated length. Any other value type is written with JDK serialization, and values that do not
+ * start with {@link #MAGIC} are read as JDK-serialized so entries written before the rollout stay
+ * readable.
+ * With {@code compactWrites} off the serializer only writes JDK format, which lets every node learn
+ * to read the new format before any node starts writing it.
+ */
+public class UserRedisSerializer implements RedisSerializer<Object> {
+
+    // JDK serialization streams start with 0xACED, so this byte can never begin a legacy value
+    static final byte MAGIC = (byte) 0xC7;
+    static final byte SCHEMA_VERSION = 2;
+
+    private static final byte TYPE_USER = 1;
+    private static final byte TYPE_USER_LIST = 2;
+    private static final byte FLAG_DEFLATED = 1;
+    private static final int HEADER_SIZE = 4;
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_NAME = 2;
+    private static final int HAS_EMAIL = 4;
+    private static final int HAS_VERSION = 8;
+
+    private final JdkSerializationRedisSerializer jdkSerializer = new JdkSerializationRedisSerializer();
+    private final boolean compactWrites;
+    private final int compressionThreshold;
+
+    public UserRedisSerializer(boolean compactWrites, int compressionThreshold) {
+        this.compactWrites = compactWrites;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        if (!compactWrites) {
+            return jdkSerializer.serialize(value);
+        }
+        try {
+            if (value instanceof UserEntity user) {
+                return encode(TYPE_USER, out -> writeUser(out, user));
+            }
+            if (value instanceof List<?> list && list.stream().allMatch(UserEntity.class::isInstance)) {
+                return encode(TYPE_USER_LIST, out -> {
+                    writeVarLong(out, list.size());
+                    for (Object user : list) {
+                        writeUser(out, (UserEntity) user);
+                    }
+                });
+            }
+        } catch (IOException e) {
+            throw new SerializationException("Cannot serialize " + value.getClass().getSimpleName(), e);
+        }
+        return jdkSerializer.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return jdkSerializer.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_SIZE || bytes[1] > SCHEMA_VERSION) {
+            throw new SerializationException("Unsupported user value schema version " + bytes[1]);
+        }
+        try (DataInputStream in = new DataInputStream(payload(bytes))) {
+            switch (bytes[2]) {
+            case TYPE_USER:
+                return readUser(in);
+            case TYPE_USER_LIST:
+                int size = (int) readVarLong(in);
+                List<UserEntity> users = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    users.add(readUser(in));
+                }
+                return users;
+            default:
+                throw new SerializationException("Unknown user value type " + bytes[2]);
+            }
+        } catch (IOException e) {
+            throw new SerializationException("Cannot deserialize user value", e);
+        }
+    }
+
+    private static InputStream payload(byte[] bytes) throws IOException {
+        if ((bytes[3] & FLAG_DEFLATED) == 0) {
+            return new ByteArrayInputStream(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+        }
+        // Deflated payloads carry their inflated length so they can be inflated in one call
+        int offset = HEADER_SIZE;
+        int length = 0;
+        for (int shift = 0;; shift += 7) {
+            int b = bytes[offset++] & 0xFF;
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, offset, bytes.length - offset);
+            byte[] inflated = new byte[length];
+            if (inflater.inflate(inflated) != length) {
+                throw new IOException("Truncated deflated user value");
+            }
+            return new ByteArrayInputStream(inflated);
+        } catch (DataFormatException e) {
+            throw new IOException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private byte[] encode(byte type, PayloadWriter writer) throws IOException {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(raw)) {
+            writer.write(out);
+        }
+        byte flags = 0;
+        byte[] payload = raw.toByteArray();
+        if (payload.length > compressionThreshold) {
+            byte[] deflated = deflate(payload);
+            if (deflated.length < payload.length) {
+                payload = deflated;
+                flags |= FLAG_DEFLATED;
+            }
+        }
+        byte[] bytes = new byte[HEADER_SIZE + payload.length];
+        bytes[0] = MAGIC;
+        bytes[1] = SCHEMA_VERSION;
+        bytes[2] = type;
+        bytes[3] = flags;
+        System.arraycopy(payload, 0, bytes, HEADER_SIZE, payload.length);
+        return bytes;
+    }
+
+    // Varint inflated length followed by the raw deflate stream
+    private static byte[] deflate(byte[] payload) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 2 + 16);
+        try (DataOutputStream lengthOut = new DataOutputStream(out)) {
+            writeVarLong(lengthOut, payload.length);
+        }
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(payload);
+            deflater.finish();
+            byte[] buffer = new byte[Math.max(64, payload.length)];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeUser(DataOutputStream out, UserEntity user) throws IOException {
+        int present = (user.getId() != null ? HAS_ID : 0)
+                | (user.getName() != null ? HAS_NAME : 0)
+                | (user.getEmail() != null ? HAS_EMAIL : 0)
+                | (user.getVersion() != null ? HAS_VERSION : 0);
+        out.writeByte(present);
+        if (user.getId() != null) {
+            writeVarLong(out, user.getId());
+        }
+        if (user.getName() != null) {
+            writeString(out, user.getName());
+        }
+        if (user.getEmail() != null) {
+            writeString(out, user.getEmail());
+        }
+        if (user.getVersion() != null) {
+            writeVarLong(out, user.getVersion());
+        }
+    }
+
+    private static UserEntity readUser(DataInputStream in) throws IOException {
+        int present = in.readUnsignedByte();
+        UserEntity user = new UserEntity();
+        if ((present & HAS_ID) != 0) {
+            user.setId(readVarLong(in));
+        }
+        if ((present & HAS_NAME) != 0) {
+            user.setName(readString(in));
+        }
+        if ((present & HAS_EMAIL) != 0) {
+            user.setEmail(readString(in));
+        }
+        if ((present & HAS_VERSION) != 0) {
+            user.setVersion(readVarLong(in));
+        }
+        return user;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] utf8 = new byte[(int) readVarLong(in)];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    // Unsigned LEB128; IDs and lengths are never negative
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    @FunctionalInterface
+    private interface PayloadWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -3,61 +3,252 @@
 
 package com.synchrony.ParallelProcessingApplication.controller;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.synchrony.ParallelProcessingApplication.model.BulkUserResult;
+import com.synchrony.ParallelProcessingApplication.model.BulkUserSummary;
+import com.synchrony.ParallelProcessingApplication.model.BulkUserUpdate;
 import com.synchrony.ParallelProcessingApplication.model.UserEntity;
+import com.synchrony.ParallelProcessingApplication.model.UserLookupResult;
+import com.synchrony.ParallelProcessingApplication.model.UserView;
+import com.synchrony.ParallelProcessingApplication.service.BulkUserService;
 import com.synchrony.ParallelProcessingApplication.service.UserService;
+import com.synchrony.ParallelProcessingApplication.service.UserVersionMismatchException;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
+import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
 
 @RestController
 @RequestMapping("/users")
 public class UserController {
 
+    public static final String NEXT_AFTER_ID_HEADER = "X-Next-After-Id";
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int MAX_LOOKUP_IDS = 500;
+
+    // Load shedding per read endpoint, configured under resilience4j.*.instances
+    static final String USERS_READ = "usersRead";
+    static final String USERS_LOOKUP = "usersLookup";
+    public static final String USERS_LIST = "usersList";
+    public static final String USERS_STREAM = "usersStream";
+    static final String RETRY_AFTER_SECONDS = "1";
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private BulkUserService bulkUserService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     // Create or update a user
     @PostMapping("/create")
     public ResponseEntity<UserEntity> saveUser(@RequestBody UserEntity user) {
         try {
             UserEntity savedUser = userService.saveUser(user);
             return ResponseEntity.ok(savedUser);
+        } catch (DataIntegrityViolationException | OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build(); // Email taken, or a stale version
         } catch (Exception e) {
             return ResponseEntity.status(500).body(null); // Internal Server Error
         }
     }
 
+    // Create or upsert many users in parallel chunks
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkUserResult>> saveUsers(@RequestBody List<UserEntity> users) {
+        try {
+            return ResponseEntity.ok(bulkUserService.saveUsers(users));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).build(); // Internal Server Error
+        }
+    }
+
+    // Delete many users by ID with set-based statements in parallel chunks; the body is a JSON array of IDs
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<BulkUserSummary> deleteUsers(@RequestBody List<Long> ids) {
+        try {
+            return ResponseEntity.ok(bulkUserService.deleteUsers(ids));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).build(); // Internal Server Error
+        }
+    }
+
+    // Give many users the same name, likewise; users not at the version given for them in "versions" are
+    // counted as conflicts and left alone, users without one are updated whatever their version
+    @PatchMapping("/bulk")
+    public ResponseEntity<BulkUserSummary> updateUsers(@RequestBody BulkUserUpdate update) {
+        if (update.getIds() == null || update.getName() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(bulkUserService.updateUsers(update));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).build(); // Internal Server Error
+        }
+    }
+
     // Get a user by ID
     @GetMapping("/getuser/{id}")
-    public ResponseEntity<UserEntity> getUserById(@PathVariable Long id) {
+    @RateLimiter(name = USERS_READ)
+    @Bulkhead(name = USERS_READ)
+    public ResponseEntity<UserView> getUserById(@PathVariable Long id) {
         UserEntity user = userService.getUserById(id);
         if (user != null) {
-            return ResponseEntity.ok(user);
+            return withETag(ResponseEntity.ok(), user).body(UserView.of(user));
         } else {
             return ResponseEntity.notFound().build();
         }
     }
 
-    // Get all users
-    @GetMapping("/getAll")
-    public ResponseEntity<List<UserEntity>> getAllUsers() {
+    // Get a user by email, a single Redis key on a hit
+    @GetMapping("/getuserbyemail")
+    @RateLimiter(name = USERS_READ)
+    @Bulkhead(name = USERS_READ)
+    public ResponseEntity<UserView> getUserByEmail(@RequestParam String email) {
+        if (email.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        UserEntity user = userService.getUserByEmail(email);
+        if (user != null) {
+            return withETag(ResponseEntity.ok(), user).body(UserView.of(user));
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Users whose name starts with a prefix, in name order, instead of filtering getAll on the client
+    @GetMapping("/search")
+    @RateLimiter(name = USERS_LOOKUP)
+    @Bulkhead(name = USERS_LOOKUP)
+    public ResponseEntity<List<UserView>> searchUsers(@RequestParam String namePrefix,
+            @RequestParam(defaultValue = "100") int size) {
+        if (namePrefix.isEmpty() || size < 1) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
-            List<UserEntity> users = userService.getAllUsers();
-            return ResponseEntity.ok(users);
+            return ResponseEntity.ok(userService.searchUsersByName(namePrefix, Math.min(size, MAX_PAGE_SIZE)));
         } catch (Exception e) {
-            return ResponseEntity.status(500).build(); // Internal Server Error
+            return failure(e);
         }
     }
 
-    // Update an existing user
+    // Get many users by ID in one call; results keep the request order and mark missing IDs
+    @GetMapping("/getusers")
+    @RateLimiter(name = USERS_LOOKUP)
+    @Bulkhead(name = USERS_LOOKUP)
+    public ResponseEntity<List<UserLookupResult>> getUsersByIds(@RequestParam List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_LOOKUP_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(userService.getUsersByIds(ids));
+        } catch (Exception e) {
+            return failure(e);
+        }
+    }
+
+    // Get all users, one keyset page at a time. Pages are read on the usersList thread-pool bulkhead, so slow
+    // pages hold neither Tomcat threads nor more connections than it has threads, and time out after the limit.
+    @GetMapping(value = "/getAll", produces = MediaType.APPLICATION_JSON_VALUE)
+    @RateLimiter(name = USERS_LIST)
+    @TimeLimiter(name = USERS_LIST)
+    @Bulkhead(name = USERS_LIST, type = Bulkhead.Type.THREADPOOL)
+    public CompletableFuture<ResponseEntity<List<UserView>>> getAllUsers(@RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(defaultValue = "100") int size) {
+        return CompletableFuture.completedFuture(getPage(afterId, size));
+    }
+
+    private ResponseEntity<List<UserView>> getPage(Long afterId, int size) {
+        if (afterId < 0 || size < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+        try {
+            List<UserEntity> users = userService.getAllUsers(afterId, pageSize);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (users.size() == pageSize) {
+                // Cursor for the next page; absent on the last page
+                response.header(NEXT_AFTER_ID_HEADER, String.valueOf(users.get(users.size() - 1).getId()));
+            }
+            List<UserView> views = new ArrayList<>(users.size());
+            users.forEach(user -> views.add(UserView.of(user)));
+            return response.body(views);
+        } catch (Exception e) {
+            return failure(e);
+        }
+    }
+
+    // Stream all users as newline-delimited JSON without buffering the table
+    // The usersStream bulkhead is on UserService.streamAllUsers, which runs once the body is written
+    @GetMapping(value = "/getAll", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @RateLimiter(name = USERS_STREAM)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            userService.streamAllUsers(user -> {
+                try {
+                    writer.write(objectMapper.writeValueAsString(user));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // Update an existing user; with If-Match, only if it is still at that ETag
     @PutMapping("/updateuser/{id}")
-    public ResponseEntity<UserEntity> updateUser(@PathVariable Long id, @RequestBody UserEntity user) {
+    public ResponseEntity<UserEntity> updateUser(@PathVariable Long id, @RequestBody UserEntity user,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return write(() -> userService.updateUser(id, user, versionOf(ifMatch)));
+    }
+
+    // Change only the fields present in the body; a request that changes nothing writes nothing
+    @PatchMapping("/patchuser/{id}")
+    public ResponseEntity<UserEntity> patchUser(@PathVariable Long id, @RequestBody UserEntity changes,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return write(() -> userService.patchUser(id, changes, versionOf(ifMatch)));
+    }
+
+    // 412 when If-Match names another version, 409 when a concurrent update got there first or the email is taken
+    private ResponseEntity<UserEntity> write(Supplier<UserEntity> update) {
         try {
-            UserEntity updatedUser = userService.updateUser(id, user);
-            return ResponseEntity.ok(updatedUser);
+            UserEntity updatedUser = update.get();
+            return withETag(ResponseEntity.ok(), updatedUser).body(updatedUser);
+        } catch (UserVersionMismatchException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(eTag(e.getCurrentVersion())).build();
+        } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
@@ -77,4 +268,48 @@ public class UserController {
             return ResponseEntity.status(500).build(); // Internal Server Error
         }
     }
+
+    // Over the endpoint's rate limit
+    @ExceptionHandler(RequestNotPermitted.class)
+    public ResponseEntity<Void> rateLimited(RequestNotPermitted e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS).build();
+    }
+
+    // Bulkhead full, time limit reached or a breaker open: shed the request instead of queueing it
+    @ExceptionHandler({ BulkheadFullException.class, TimeoutException.class, CallNotPermittedException.class })
+    public ResponseEntity<Void> unavailable(Exception e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS).build();
+    }
+
+    // Strong ETag of a user's version; absent for users cached before versions were
+    private static ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder response, UserEntity user) {
+        return user.getVersion() != null ? response.eTag(eTag(user.getVersion())) : response;
+    }
+
+    public static String eTag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // Version named by an If-Match header, null for none or "*"; a weak or foreign ETag never matches
+    public static Long versionOf(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // Not an ETag this service issued
+            }
+        }
+        return -1L; // no stored version is negative, so this fails the precondition
+    }
+
+    private <T> ResponseEntity<T> failure(Exception e) {
+        if (e instanceof CallNotPermittedException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS).build();
+        }
+        return ResponseEntity.status(500).build(); // Internal Server Error
+    }
 }
@@ -0,0 +1,77 @@
+package com.synchrony.ParallelProcessingApplication.controller;
+
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.synchrony.ParallelProcessingApplication.model.UserExportStatus;
+import com.synchrony.ParallelProcessingApplication.service.UserExportService;
+import com.synchrony.ParallelProcessingApplication.service.UserExportService.Format;
+
+// Export jobs for the users table: start one, poll its progress, then download the gzip file
+@RestController
+@RequestMapping("/users/export")
+public class UserExportController {
+
+    static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+    static final String RETRY_AFTER_SECONDS = "30";
+
+    @Autowired
+    private UserExportService exportService;
+
+    // Start an export (csv or ndjson); 202 with the job's status URL, 503 while the running-job limit is reached
+    @PostMapping
+    public ResponseEntity<UserExportStatus> startExport(@RequestParam(defaultValue = "csv") String format) {
+        Format exportFormat;
+        try {
+            exportFormat = Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        UserExportStatus status = exportService.start(exportFormat);
+        if (status == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS).build();
+        }
+        return ResponseEntity.accepted().location(URI.create("/users/export/" + status.id())).body(status);
+    }
+
+    // Progress of a job
+    @GetMapping("/{id}")
+    public ResponseEntity<UserExportStatus> getExport(@PathVariable String id) {
+        UserExportStatus status = exportService.status(id);
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+
+    // The parts of a complete job as one gzip file; 409 until the job is complete
+    @GetMapping("/{id}/download")
+    public ResponseEntity<StreamingResponseBody> downloadExport(@PathVariable String id) {
+        UserExportStatus status = exportService.status(id);
+        if (status == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (status.state() != UserExportStatus.State.COMPLETE) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        String fileName = "users-" + id + "." + Format.valueOf(status.format()).extension();
+        StreamingResponseBody body = outputStream -> exportService.transferTo(id, Channels.newChannel(outputStream));
+        return ResponseEntity.ok()
+                .contentType(GZIP)
+                .contentLength(status.bytes())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,230 @@
+package com.synchrony.ParallelProcessingApplication.dataconfig;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.synchrony.ParallelProcessingApplication.dataconfig.ExecutorProperties.Pool;
+import com.synchrony.ParallelProcessingApplication.dataconfig.ExecutorProperties.RejectionPolicy;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Named thread pool that re-sizes itself from the load it measures.
+ * <p>
+ * Every {@code adjust-interval} the core size is set by Little's law: the threads needed to keep up
+ * are the arrival rate times the average time a task runs, plus enough to clear the current backlog
+ * within one interval. When tasks waited longer than {@code target-queue-wait} in the queue the pool
+ * grows by at least one thread; it shrinks by half the surplus at a time so a lull does not undo a
+ * burst. The core size stays between {@code core-size} and {@code max-size}. Once every thread is
+ * busy and the queue is full the configured {@link RejectionPolicy} applies.
+ * <p>
+ * Meters, tagged with the pool name: the {@code executor.*} gauges from {@link ExecutorServiceMetrics}
+ * (queued, active, pool size, completed), {@code executor.queue.wait} and {@code executor.rejections}
+ * by outcome ({@code caller_runs}, {@code waited}, {@code rejected}).
+ */
+public class AdaptiveThreadPoolExecutor extends ThreadPoolExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveThreadPoolExecutor.class);
+
+    // One daemon thread re-sizes every pool; the work per adjustment is a handful of counter reads
+    private static final ScheduledExecutorService TUNER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "executor-tuner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String name;
+    private final int minSize;
+    private final long targetWaitNanos;
+    private final Timer queueWait;
+    private final ScheduledFuture<?> tuning;
+
+    private final LongAdder arrived = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private long lastAdjustNanos = System.nanoTime();
+
+    public AdaptiveThreadPoolExecutor(String name, Pool pool, MeterRegistry meterRegistry) {
+        super(pool.getCoreSize(), pool.getMaxSize(), 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(pool.getQueueCapacity()), threadFactory(name),
+                new Rejection(pool, name, meterRegistry));
+        this.name = name;
+        this.minSize = pool.getCoreSize();
+        this.targetWaitNanos = pool.getTargetQueueWait().toNanos();
+
+        new ExecutorServiceMetrics(this, name, Tags.empty()).bindTo(meterRegistry);
+        this.queueWait = Timer.builder("executor.queue.wait")
+                .description("Time tasks spent in the queue before a thread picked them up")
+                .tag("name", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        long interval = pool.getAdjustInterval().toMillis();
+        this.tuning = pool.isAdaptive() && pool.getMaxSize() > pool.getCoreSize()
+                ? TUNER.scheduleWithFixedDelay(this::adjust, interval, interval, TimeUnit.MILLISECONDS)
+                : null;
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> new Thread(runnable, name + "-exec-" + count.incrementAndGet());
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        arrived.increment();
+        super.execute(new TimedTask(task, System.nanoTime()));
+    }
+
+    // Re-size the core pool from what happened since the last call; returns the new core size
+    public synchronized int adjust() {
+        long now = System.nanoTime();
+        double seconds = (now - lastAdjustNanos) / 1e9;
+        lastAdjustNanos = now;
+        long arrivals = arrived.sumThenReset();
+        long done = completed.sumThenReset();
+        long busy = busyNanos.sumThenReset();
+        long starts = started.sumThenReset();
+        long waited = waitNanos.sumThenReset();
+
+        int current = getCorePoolSize();
+        int backlog = getQueue().size();
+        double needed;
+        if (done > 0 && seconds > 0) {
+            double serviceSeconds = busy / 1e9 / done;
+            needed = (arrivals / seconds + backlog / seconds) * serviceSeconds;
+        } else {
+            // Nothing finished, so there is no service time to go by: keep the busy threads, one more if work waits
+            needed = getActiveCount() + (backlog > 0 ? 1 : 0);
+        }
+
+        int target = (int) Math.ceil(needed);
+        if (starts > 0 && waited / starts > targetWaitNanos) {
+            target = Math.max(target, current + 1);
+        }
+        if (target < current) {
+            target = current - (current - target + 1) / 2;
+        }
+        target = Math.max(minSize, Math.min(getMaximumPoolSize(), target));
+        if (target != current) {
+            logger.debug("Executor {}: core size {} -> {} ({} arrived, {} done, {} queued in {}s)", name, current,
+                    target, arrivals, done, backlog, String.format("%.1f", seconds));
+            setCorePoolSize(target);
+        }
+        return target;
+    }
+
+    @Override
+    public void shutdown() {
+        stopTuning();
+        super.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        stopTuning();
+        return super.shutdownNow();
+    }
+
+    private void stopTuning() {
+        if (tuning != null) {
+            tuning.cancel(false);
+        }
+    }
+
+    // Records how long the task queued and how long it ran
+    private class TimedTask implements Runnable {
+
+        private final Runnable task;
+        private final long submittedNanos;
+
+        TimedTask(Runnable task, long submittedNanos) {
+            this.task = task;
+            this.submittedNanos = submittedNanos;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            long wait = start - submittedNanos;
+            queueWait.record(wait, TimeUnit.NANOSECONDS);
+            started.increment();
+            waitNanos.add(wait);
+            try {
+                task.run();
+            } finally {
+                busyNanos.add(System.nanoTime() - start);
+                completed.increment();
+            }
+        }
+    }
+
+    // Applies the pool's RejectionPolicy once every thread is busy and the queue is full
+    private static class Rejection implements RejectedExecutionHandler {
+
+        private final RejectionPolicy policy;
+        private final long maxWaitNanos;
+        private final Counter callerRuns;
+        private final Counter waited;
+        private final Counter rejected;
+
+        Rejection(Pool pool, String name, MeterRegistry meterRegistry) {
+            this.policy = pool.getRejection();
+            this.maxWaitNanos = pool.getMaxWait().toNanos();
+            this.callerRuns = rejections(meterRegistry, name, "caller_runs");
+            this.waited = rejections(meterRegistry, name, "waited");
+            this.rejected = rejections(meterRegistry, name, "rejected");
+        }
+
+        private static Counter rejections(MeterRegistry meterRegistry, String name, String outcome) {
+            return Counter.builder("executor.rejections")
+                    .description("Tasks submitted while every thread was busy and the queue was full")
+                    .tags("name", name, "outcome", outcome)
+                    .register(meterRegistry);
+        }
+
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                rejected.increment();
+                throw new RejectedExecutionException("Executor is shut down");
+            }
+            if (policy == RejectionPolicy.CALLER_RUNS) {
+                callerRuns.increment();
+                task.run();
+                return;
+            }
+            if (policy == RejectionPolicy.BOUNDED_WAIT) {
+                try {
+                    if (executor.getQueue().offer(task, maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                        waited.increment();
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            rejected.increment();
+            throw new RejectedExecutionException("Executor is saturated");
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.synchrony.ParallelProcessingApplication.dataconfig;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.bulk")
+public class BulkProperties {
+
+    // Records saved per transaction / JDBC batch group
+    private int chunkSize = 1000;
+
+    // Chunks in flight at once on the task executor
+    private int parallelism = 8;
+}
@@ -0,0 +1,28 @@
+package com.synchrony.ParallelProcessingApplication.dataconfig;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.synchrony.ParallelProcessingApplication.cache.UserNearCache;
+
+@Configuration
+public class CacheConfig {
+
+    // Subscribes the near cache to invalidations broadcast by other nodes; started by NearCacheSubscription
+    @Bean
+    public RedisMessageListenerContainer nearCacheInvalidationContainer(RedisConnectionFactory redisConnectionFactory,
+            UserNearCache userNearCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer() {
+            @Override
+            public boolean isAutoStartup() {
+                return false;
+            }
+        };
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(userNearCache, new ChannelTopic(userNearCache.getInvalidationChannel()));
+        return container;
+    }
+}
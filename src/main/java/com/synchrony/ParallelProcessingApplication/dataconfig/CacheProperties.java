@@ -0,0 +1,137 @@
+package com.synchrony.ParallelProcessingApplication.dataconfig;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+
+    private Near near = new Near();
+
+    // Width of the ID range cached under one USERS_SEGMENT_{n} key
+    private long segmentSize = 500;
+
+    private Serializer serializer = new Serializer();
+
+    private WriteBehind writeBehind = new WriteBehind();
+
+    private Stampede stampede = new Stampede();
+
+    private Policy policy = new Policy();
+
+    private WarmUp warmUp = new WarmUp();
+
+    private HotKeys hotKeys = new HotKeys();
+
+    // In-process (L1) cache that sits in front of Redis
+    @Data
+    public static class Near {
+        private boolean enabled = true;
+        private long maxSize = 10_000;
+        private Duration ttl = Duration.ofSeconds(30);
+        private String invalidationChannel = "USER_INVALIDATION";
+        // XFetch early refresh aggressiveness; 0 disables it, above 1 refreshes earlier
+        private double earlyRefreshBeta = 1.0;
+    }
+
+    // Redis value format; compact=false keeps writing JDK serialization while still reading both
+    @Data
+    public static class Serializer {
+        private boolean compact = true;
+        private int compressionThreshold = 1024;
+    }
+
+    // Outbox-driven write-behind of committed user writes to Redis; rows per pipelined flush
+    @Data
+    public static class WriteBehind {
+        private int batchSize = 500;
+        // How often each node checks the outbox for changes it was not woken up for
+        private Duration pollInterval = Duration.ofSeconds(1);
+    }
+
+    // Cross-node rebuild lease: only the lease holder reloads a missing key, the others wait for it
+    @Data
+    public static class Stampede {
+        private boolean lockEnabled = false;
+        private Duration lockTtl = Duration.ofSeconds(5);
+        private Duration lockWait = Duration.ofSeconds(1);
+        private Duration pollInterval = Duration.ofMillis(50);
+    }
+
+    // Expiry and size limits per Redis key family (USER_{id}, USERS_SEGMENT_{n}, USERS_EMAIL_{email})
+    @Data
+    public static class Policy {
+        private KeyFamily user = new KeyFamily(Duration.ofHours(1), 64 * 1024);
+        private KeyFamily segment = new KeyFamily(Duration.ofMinutes(10), 1024 * 1024);
+        private KeyFamily email = new KeyFamily(Duration.ofHours(1), 1024);
+        // How often Redis is scanned for the per-family key count gauge; zero disables the scan
+        private Duration keyCountInterval = Duration.ofMinutes(5);
+    }
+
+    // Startup preload of the hotSetSize most recently read users, chunkSize IDs per lookup, parallelism lookups at a time
+    @Data
+    public static class WarmUp {
+        private boolean enabled = true;
+        private int hotSetSize = 10_000;
+        // How often each node adds the IDs it served to the shared hot set
+        private Duration recordInterval = Duration.ofSeconds(10);
+        private int chunkSize = 500;
+        private int parallelism = 2;
+        // Longest the warm-up may hold back readiness
+        private Duration timeBudget = Duration.ofSeconds(30);
+    }
+
+    // Per-ID read frequency (count-min sketch, width counters per row) and its top-K heavy hitters
+    @Data
+    public static class HotKeys {
+        private boolean enabled = true;
+        private int width = 16_384;
+        private int topK = 100;
+        // Fraction of reads counted; estimates are scaled back up
+        private double sampleRate = 1.0;
+        // How often the top-K list is recomputed, and how often every count is halved so old traffic fades
+        private Duration refreshInterval = Duration.ofSeconds(10);
+        private Duration decayInterval = Duration.ofMinutes(1);
+        // Near cache TTL of heavy hitters, which are also exempt from its size eviction
+        private Duration pinnedTtl = Duration.ofMinutes(5);
+
+        // Checked at binding, as estimates are divided by it
+        public void setSampleRate(double sampleRate) {
+            if (!(sampleRate > 0 && sampleRate <= 1)) {
+                throw new IllegalArgumentException(
+                        "app.cache.hot-keys.sample-rate must be in (0, 1], was " + sampleRate);
+            }
+            this.sampleRate = sampleRate;
+        }
+    }
+
+    // TTL is spread by +/- jitter (a fraction of the TTL); values above maxPayloadBytes are not cached
+    @Data
+    @NoArgsConstructor
+    public static class KeyFamily {
+        private Duration ttl;
+        private double jitter = 0.1;
+        private int maxPayloadBytes;
+
+        public KeyFamily(Duration ttl, int maxPayloadBytes) {
+            this.ttl = ttl;
+            this.maxPayloadBytes = maxPayloadBytes;
+        }
+
+        // TTL spread uniformly over [ttl * (1 - jitter), ttl * (1 + jitter)]
+        public Duration jitteredTtl() {
+            long ttlMillis = ttl.toMillis();
+            long spread = (long) (ttlMillis * jitter);
+            if (spread <= 0) {
+                return ttl;
+            }
+            return Duration.ofMillis(ttlMillis + ThreadLocalRandom.current().nextLong(-spread, spread + 1));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.synchrony.ParallelProcessingApplication.dataconfig;
+
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.ToDoubleFunction;
+
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+
+/**
+ * Saturation and wait-time meters for the database and Redis connection pools.
+ * <p>
+ * Spring Boot binds {@code hikaricp.connections.*} for the primary pool (the replicas bind their
+ * own), including the {@code hikaricp.connections.acquire} wait timer. On top of that each Hikari
+ * pool gets {@code datasource.pool.saturation}: connections in use plus threads waiting for one,
+ * over the maximum pool size, so a value above 1 means callers are queueing for connections.
+ * <p>
+ * The Lettuce connection pool lives inside Spring Data Redis, so its figures are read from the
+ * MBean commons-pool2 registers for it: {@code redis.pool.saturation} on the same terms, and the
+ * mean and max borrow waits as {@code redis.pool.borrow.wait}. The pool is created with the first
+ * pipeline, and reads as idle until then.
+ */
+@Component
+public class ConnectionPoolMetrics {
+
+    static final String REDIS_POOL_JMX_PREFIX = "redis";
+    private static final String PRIMARY_POOL = "primary";
+
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    private final ObjectName redisPools;
+
+    public ConnectionPoolMetrics(HikariDataSource primaryDataSource, RedisClientProperties redisClientProperties,
+            MeterRegistry meterRegistry) throws MalformedObjectNameException {
+        this.redisPools = new ObjectName("org.apache.commons.pool2:type=GenericObjectPool,name=" + REDIS_POOL_JMX_PREFIX + "*");
+        bindSaturation(primaryDataSource,
+                primaryDataSource.getPoolName() != null ? primaryDataSource.getPoolName() : PRIMARY_POOL, meterRegistry);
+        if (redisClientProperties.getPool().isEnabled()) {
+            bindRedisPool(meterRegistry);
+        }
+    }
+
+    public static void bindSaturation(HikariDataSource dataSource, String poolName, MeterRegistry meterRegistry) {
+        Gauge.builder("datasource.pool.saturation", dataSource, ConnectionPoolMetrics::saturation)
+                .description("Connections in use plus threads waiting for one, over the maximum pool size")
+                .tag("pool", poolName)
+                .register(meterRegistry);
+    }
+
+    // Zero until the pool has started, which LazyConnectionDataSourceProxy defers to the first statement
+    private static double saturation(HikariDataSource dataSource) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null || dataSource.getMaximumPoolSize() <= 0) {
+            return 0;
+        }
+        return (pool.getActiveConnections() + pool.getThreadsAwaitingConnection()) / (double) dataSource.getMaximumPoolSize();
+    }
+
+    private void bindRedisPool(MeterRegistry meterRegistry) {
+        Gauge.builder("redis.pool.saturation", this, ConnectionPoolMetrics::redisSaturation)
+                .description("Dedicated Redis connections in use plus callers waiting for one, over the pool's maximum")
+                .register(meterRegistry);
+        redisBorrowWait(meterRegistry, "mean", metrics -> metrics.redisPools("MeanBorrowWaitTimeMillis", Math::max));
+        redisBorrowWait(meterRegistry, "max", metrics -> metrics.redisPools("MaxBorrowWaitTimeMillis", Math::max));
+    }
+
+    private double redisSaturation() {
+        double maxTotal = redisPools("MaxTotal", Double::sum);
+        if (maxTotal <= 0) {
+            return 0;
+        }
+        return (redisPools("NumActive", Double::sum) + redisPools("NumWaiters", Double::sum)) / maxTotal;
+    }
+
+    private void redisBorrowWait(MeterRegistry meterRegistry, String statistic, ToDoubleFunction<ConnectionPoolMetrics> value) {
+        TimeGauge.builder("redis.pool.borrow.wait", this, TimeUnit.MILLISECONDS, value)
+                .description("Time callers waited for a dedicated Redis connection from the pool")
+                .tag("statistic", statistic)
+                .register(meterRegistry);
+    }
+
+    // One attribute over the registered Redis pools, combined; 0 while there are none
+    private double redisPools(String attribute, DoubleBinaryOperator combine) {
+        Set<ObjectName> pools = mBeanServer.queryNames(redisPools, null);
+        double result = 0;
+        for (ObjectName pool : pools) {
+            try {
+                result = combine.applyAsDouble(result, ((Number) mBeanServer.getAttribute(pool, attribute)).doubleValue());
+            } catch (Exception e) {
+                // Unregistered since the query, e.g. while the context closes
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,76 @@
+package com.synchrony.ParallelProcessingApplication.dataconfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class DataSourceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceConfig.class);
+
+    // Writes and read-write transactions; spring.datasource.hikari.* applies to this pool
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // One pool per app.datasource.replicas entry, sized and tuned like the primary
+    @Bean
+    public ReadReplicaDataSource readReplicaDataSource(HikariDataSource primaryDataSource,
+            ReplicaProperties replicaProperties, MeterRegistry meterRegistry) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (ReplicaProperties.Replica replica : replicaProperties.getReplicas()) {
+            HikariDataSource replicaDataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername() != null ? replica.getUsername() : primaryDataSource.getUsername())
+                    .password(replica.getPassword() != null ? replica.getPassword() : primaryDataSource.getPassword())
+                    .build();
+            replicaDataSource.setPoolName("replica-" + replicas.size());
+            if (primaryDataSource.getMaximumPoolSize() > 0) { // unset until the pool starts, then Hikari's default
+                replicaDataSource.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+            }
+            if (primaryDataSource.getMinimumIdle() >= 0) {
+                replicaDataSource.setMinimumIdle(primaryDataSource.getMinimumIdle());
+            }
+            // Same acquire timeout, leak detection and driver settings (statement cache) as the primary
+            replicaDataSource.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            replicaDataSource.setLeakDetectionThreshold(primaryDataSource.getLeakDetectionThreshold());
+            replicaDataSource.setDataSourceProperties(primaryDataSource.getDataSourceProperties());
+            replicaDataSource.setReadOnly(true);
+            replicaDataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            ConnectionPoolMetrics.bindSaturation(replicaDataSource, replicaDataSource.getPoolName(), meterRegistry);
+            replicas.add(replicaDataSource);
+        }
+        logger.info("Routing read-only transactions to {} read replica(s)", replicas.size());
+        return new ReadReplicaDataSource(primaryDataSource, replicas, replicaProperties.getHealthCheckInterval(),
+                meterRegistry);
+    }
+
+    // Connections are only taken once a statement runs, by then the transaction's read-only flag picks the side
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReadReplicaDataSource readReplicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(readReplicaDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,55 @@
+package com.synchrony.ParallelProcessingApplication.dataconfig;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@ConfigurationProperties(prefix = "app.executor")
+public class ExecutorProperties {
+
+    // Database work: bulk chunks and other @Async("dbExecutor") tasks that hold a connection
+    private Pool db = new Pool(10, 20, 50, RejectionPolicy.BOUNDED_WAIT);
+
+    // Export jobs and their partitions: a small pool of their own, so exports never take more than
+    // maxSize connections however many jobs run, and never queue behind or ahead of dbExecutor work
+    private Pool export = new Pool(4, 4, 20, RejectionPolicy.ABORT);
+
+    // Concurrency bound of the database pool in virtual-thread mode, where there is no thread count to size
+    private int virtualConcurrencyLimit = 10;
+
+    // What a submitter gets once every thread is busy and the queue is full
+    public enum RejectionPolicy {
+        // The submitting thread runs the task itself, which slows the submitter down
+        CALLER_RUNS,
+        // The submitter blocks for up to maxWait for queue space, then gets a RejectedExecutionException
+        BOUNDED_WAIT,
+        // RejectedExecutionException right away
+        ABORT
+    }
+
+    // Pool sizes are bounds: with adaptive sizing the core size moves between coreSize and maxSize
+    @Data
+    @NoArgsConstructor
+    public static class Pool {
+        private int coreSize;
+        private int maxSize;
+        private int queueCapacity;
+        private RejectionPolicy rejection;
+        private Duration maxWait = Duration.ofSeconds(1);
+        private boolean adaptive = true;
+        // Queue wait the adaptive sizing aims to stay under, and how often it re-sizes the pool
+        private Duration targetQueueWait = Duration.ofMillis(50);
+        private Duration adjustInterval = Duration.ofSeconds(5);
+
+        public Pool(int coreSize, int maxSize, int queueCapacity, RejectionPolicy rejection) {
+            this.coreSize = coreSize;
+            this.maxSize = maxSize;
+            this.queueCapacity = queueCapacity;
+            this.rejection = rejection;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.synchrony.ParallelProcessingApplication.dataconfig;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.export")
+public class ExportProperties {
+
+    // Parts are written under one directory per job
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "user-exports");
+
+    // ID-range partitions per job, read in parallel on the export executor
+    private int partitions = 4;
+
+    // IDs a partition reads per read-only transaction; its connection goes back to the pool between them
+    private int idsPerTransaction = 10_000;
+
+    // Compressed bytes each partition buffers before writing to its file
+    private int bufferSize = 64 * 1024;
+
+    // Jobs running at once; further starts are refused until one finishes
+    private int maxRunningJobs = 2;
+
+    // How long a finished job and its files are kept
+    private Duration retention = Duration.ofHours(1);
+
+    // Checked at binding, as the ID range is divided by it
+    public void setPartitions(int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("app.export.partitions must be at least 1, was " + partitions);
+        }
+        this.partitions = partitions;
+    }
+
+    public void setIdsPerTransaction(int idsPerTransaction) {
+        if (idsPerTransaction < 1) {
+            throw new IllegalArgumentException("app.export.ids-per-transaction must be at least 1, was " + idsPerTransaction);
+        }
+        this.idsPerTransaction = idsPerTransaction;
+    }
+}
@@ -0,0 +1,19 @@
+package com.synchrony.ParallelProcessingApplication.dataconfig;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.logging")
+public class LoggingProperties {
+
+    // Level of the per-request logs on the read paths; SAMPLED logs sampleRate of them at INFO, the rest at DEBUG
+    private HotPathMode hotPath = HotPathMode.INFO;
+
+    private double sampleRate = 0.01;
+
+    public enum HotPathMode {
+        INFO, DEBUG, SAMPLED
+    }
+}
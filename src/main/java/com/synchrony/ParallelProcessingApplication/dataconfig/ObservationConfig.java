@@ -0,0 +1,17 @@
+package com.synchrony.ParallelProcessingApplication.dataconfig;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.aop.ObservedAspect;
+
+@Configuration
+public class ObservationConfig {
+
+    // Turns @Observed methods into observations: a users.service timer plus a span when tracing is on
+    @Bean
+    public ObservedAspect observedAspect(ObservationRegistry observationRegistry) {
+        return new ObservedAspect(observationRegistry);
+    }
+}
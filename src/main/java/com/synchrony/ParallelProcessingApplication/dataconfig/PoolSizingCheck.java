@@ -0,0 +1,113 @@
+package com.synchrony.ParallelProcessingApplication.dataconfig;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.synchrony.ParallelProcessingApplication.controller.UserController;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+
+/**
+ * Startup check of the threads that hold primary database connections against the size of that
+ * pool: {@code dbExecutor}, {@code exportExecutor} (each task holds one for a slice transaction),
+ * the {@code usersList} thread-pool bulkhead that reads getAll pages and the {@code usersStream}
+ * bulkhead whose NDJSON streams hold one for their whole run. When together they can take more
+ * connections than the pool has, the extra threads block in {@code getConnection()} for up to the
+ * pool's connection timeout. A mismatch is logged as a warning when the application is ready;
+ * nothing is resized.
+ */
+@Component
+public class PoolSizingCheck {
+
+    private static final Logger logger = LoggerFactory.getLogger(PoolSizingCheck.class);
+
+    // What Hikari uses when maximum-pool-size is not set; the data source reports it once the pool starts
+    static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    private final ExecutorProperties executorProperties;
+    private final HikariDataSource primaryDataSource;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry;
+    private final Environment environment;
+
+    public PoolSizingCheck(ExecutorProperties executorProperties, HikariDataSource primaryDataSource,
+            BulkheadRegistry bulkheadRegistry, ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry,
+            Environment environment) {
+        this.executorProperties = executorProperties;
+        this.primaryDataSource = primaryDataSource;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.threadPoolBulkheadRegistry = threadPoolBulkheadRegistry;
+        this.environment = environment;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logMismatches() {
+        List<String> mismatches = check();
+        if (mismatches.isEmpty()) {
+            logger.info("Database work fits the database pool: {} / {} ({})", total(connectionHolders()),
+                    databasePoolSize(), describe(connectionHolders()));
+        }
+        mismatches.forEach(logger::warn);
+    }
+
+    // A message if the connection holders together can take more connections than the pool has
+    public List<String> check() {
+        List<String> mismatches = new ArrayList<>();
+        Map<String, Integer> holders = connectionHolders();
+        int total = total(holders);
+        int databasePoolSize = databasePoolSize();
+        if (total > databasePoolSize) {
+            mismatches.add(String.format("Up to %d tasks hold a database connection at once (%s) but the database pool"
+                    + " has %d connections; the rest wait up to %d ms for one. Raise"
+                    + " spring.datasource.hikari.maximum-pool-size or shrink one of them",
+                    total, describe(holders), databasePoolSize, primaryDataSource.getConnectionTimeout()));
+        }
+        return mismatches;
+    }
+
+    // Each executor or bulkhead that borrows a primary connection, with how many it can take at once
+    private Map<String, Integer> connectionHolders() {
+        Map<String, Integer> holders = new LinkedHashMap<>();
+        // In virtual-thread mode dbExecutor is bounded by a concurrency limit instead of a thread count
+        holders.put("dbExecutor", virtualThreads() ? executorProperties.getVirtualConcurrencyLimit()
+                : executorProperties.getDb().getMaxSize());
+        holders.put("exportExecutor", executorProperties.getExport().getMaxSize());
+        holders.put(UserController.USERS_LIST + " bulkhead",
+                threadPoolBulkheadRegistry.bulkhead(UserController.USERS_LIST).getBulkheadConfig().getMaxThreadPoolSize());
+        holders.put(UserController.USERS_STREAM + " bulkhead",
+                bulkheadRegistry.bulkhead(UserController.USERS_STREAM).getBulkheadConfig().getMaxConcurrentCalls());
+        return holders;
+    }
+
+    private static int total(Map<String, Integer> holders) {
+        return holders.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private static String describe(Map<String, Integer> holders) {
+        return holders.entrySet().stream()
+                .map(holder -> holder.getKey() + " " + holder.getValue())
+                .collect(Collectors.joining(", "));
+    }
+
+    private int databasePoolSize() {
+        int maximumPoolSize = primaryDataSource.getMaximumPoolSize();
+        return maximumPoolSize > 0 ? maximumPoolSize : HIKARI_DEFAULT_POOL_SIZE;
+    }
+
+    private boolean virtualThreads() {
+        return Threading.VIRTUAL.isActive(environment);
+    }
+}
@@ -0,0 +1,92 @@
+package com.synchrony.ParallelProcessingApplication.dataconfig;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.synchrony.ParallelProcessingApplication.cache.UserCacheUpdateEvent;
+import com.synchrony.ParallelProcessingApplication.dataconfig.ReadReplicaDataSource.TrackedRead;
+
+/**
+ * Read-your-writes on top of replica reads.
+ * <p>
+ * For {@code app.datasource.pin-after-write} after a user write commits on this node, loads of that
+ * user (alone, in a batch or in its segment) read the primary instead of a replica that may not have
+ * applied the write yet. Besides stale responses this keeps a cache miss from writing the old row
+ * back into Redis after the write-behind flush has stored the new one.
+ * <p>
+ * Writes made on other nodes are not pinned here, so every read reports whether a replica served it.
+ * Such a copy may predate a write whose outbox flush has already updated or evicted the Redis entry,
+ * and is only cached for {@link #getReplicaCacheTtl()} rather than the key family's TTL.
+ */
+@Component
+public class PrimaryReadPins {
+
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final Map<Long, Long> pinnedUntil = new ConcurrentHashMap<>();
+    private final long pinNanos;
+    private final Duration replicaCacheTtl;
+
+    public PrimaryReadPins(ReplicaProperties replicaProperties) {
+        this.pinNanos = replicaProperties.getPinAfterWrite().toNanos();
+        this.replicaCacheTtl = replicaProperties.getPinAfterWrite();
+    }
+
+    // How long a value read from a replica may be cached: the replication lag pin-after-write covers; zero for not at all
+    public Duration getReplicaCacheTtl() {
+        return replicaCacheTtl.isNegative() ? Duration.ZERO : replicaCacheTtl;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserCacheUpdate(UserCacheUpdateEvent event) {
+        pin(event.id());
+    }
+
+    public void pin(Long id) {
+        if (pinNanos <= 0) {
+            return;
+        }
+        if (pinnedUntil.size() > PURGE_THRESHOLD) {
+            long now = System.nanoTime();
+            pinnedUntil.values().removeIf(until -> until - now < 0);
+        }
+        pinnedUntil.put(id, System.nanoTime() + pinNanos);
+    }
+
+    // Reads of one user
+    public <T> TrackedRead<T> read(Long id, Supplier<T> reads) {
+        Long until = pinnedUntil.get(id);
+        return read(until != null && until - System.nanoTime() > 0, reads);
+    }
+
+    // Reads of several users, on the primary if any of them is pinned
+    public <T> TrackedRead<T> read(Collection<Long> ids, Supplier<T> reads) {
+        return read(isPinned(ids::contains), reads);
+    }
+
+    // Reads of an ID range, on the primary if a user in it is pinned
+    public <T> TrackedRead<T> readRange(long fromId, long toId, Supplier<T> reads) {
+        return read(isPinned(id -> id >= fromId && id <= toId), reads);
+    }
+
+    private boolean isPinned(LongPredicate ids) {
+        if (pinnedUntil.isEmpty()) {
+            return false;
+        }
+        long now = System.nanoTime();
+        return pinnedUntil.entrySet().stream()
+                .anyMatch(pin -> pin.getValue() - now > 0 && ids.test(pin.getKey()));
+    }
+
+    private static <T> TrackedRead<T> read(boolean pinned, Supplier<T> reads) {
+        return pinned ? ReadReplicaDataSource.onPrimary(() -> new TrackedRead<>(reads.get(), false))
+                : ReadReplicaDataSource.tracked(reads);
+    }
+}
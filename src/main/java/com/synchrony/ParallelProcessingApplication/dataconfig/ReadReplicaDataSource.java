@@ -0,0 +1,195 @@
+package com.synchrony.ParallelProcessingApplication.dataconfig;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Connections for read-only transactions, spread round-robin over the healthy read replicas.
+ * <p>
+ * This is the read-only target of the application's {@code LazyConnectionDataSourceProxy}, so it is
+ * only asked for a connection once a transaction marked read-only runs its first statement; every
+ * other transaction stays on the primary. A replica that fails a connection attempt or the periodic
+ * probe is skipped until a probe succeeds again. With no healthy replica, and inside
+ * {@link #onPrimary(Supplier)}, reads fall back to the primary.
+ * <p>
+ * Meters: {@code datasource.reads} by {@code target} (a replica name or {@code primary}) and a
+ * {@code datasource.replica.healthy} gauge per replica.
+ */
+public class ReadReplicaDataSource extends AbstractDataSource implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaDataSource.class);
+    private static final int PROBE_TIMEOUT_SECONDS = 2;
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+    // Set inside tracked(Supplier), to whether a replica has served one of its reads yet
+    private static final ThreadLocal<Boolean> REPLICA_SERVED = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryReads;
+    private final ScheduledExecutorService healthCheck;
+
+    public ReadReplicaDataSource(DataSource primary, List<? extends DataSource> replicaDataSources,
+            Duration healthCheckInterval, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            replicas.add(new Replica("replica-" + i, replicaDataSources.get(i), meterRegistry));
+        }
+        this.primaryReads = reads(meterRegistry, "primary");
+
+        if (replicas.isEmpty() || healthCheckInterval.isZero()) {
+            this.healthCheck = null;
+            return;
+        }
+        this.healthCheck = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = healthCheckInterval.toMillis();
+        healthCheck.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private static Counter reads(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("datasource.reads")
+                .description("Connections handed out for read-only transactions")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    // Run reads on the primary, e.g. to read a write that may not have replicated yet
+    public static <T> T onPrimary(Supplier<T> reads) {
+        Boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_ONLY.remove();
+            }
+        }
+    }
+
+    // Run reads, noting whether a replica served any of them; such results may predate recent writes
+    public static <T> TrackedRead<T> tracked(Supplier<T> reads) {
+        Boolean previous = REPLICA_SERVED.get();
+        REPLICA_SERVED.set(Boolean.FALSE);
+        try {
+            T value = reads.get();
+            return new TrackedRead<>(value, REPLICA_SERVED.get());
+        } finally {
+            if (previous == null) {
+                REPLICA_SERVED.remove();
+            } else {
+                REPLICA_SERVED.set(previous || REPLICA_SERVED.get());
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!Boolean.TRUE.equals(PRIMARY_ONLY.get()) && !replicas.isEmpty()) {
+            int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (!replica.healthy) {
+                    continue;
+                }
+                try {
+                    Connection connection = replica.dataSource.getConnection();
+                    replica.reads.increment();
+                    if (REPLICA_SERVED.get() != null) {
+                        REPLICA_SERVED.set(Boolean.TRUE);
+                    }
+                    return connection;
+                } catch (SQLException e) {
+                    replica.markDown(e.getMessage());
+                }
+            }
+        }
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    // Explicit credentials belong to the primary's users; such connections are not routed
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    // Probe every replica, taking failed ones out of rotation and bringing recovered ones back
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid(PROBE_TIMEOUT_SECONDS)) {
+                    replica.markDown("connection is not valid");
+                } else if (!replica.healthy) {
+                    replica.healthy = true;
+                    logger.info("Read replica {} is back in rotation", replica.name);
+                }
+            } catch (SQLException e) {
+                replica.markDown(e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (healthCheck != null) {
+            healthCheck.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    // The result of reads and whether a replica, which may lag the primary, served any of them
+    public record TrackedRead<T>(T value, boolean fromReplica) {
+    }
+
+    private static class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private final Counter reads;
+        private volatile boolean healthy = true;
+
+        Replica(String name, DataSource dataSource, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.reads = reads(meterRegistry, name);
+            Gauge.builder("datasource.replica.healthy", this, replica -> replica.healthy ? 1 : 0)
+                    .description("1 while the read replica is in rotation")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        }
+
+        void markDown(String reason) {
+            if (healthy) {
+                healthy = false;
+                logger.warn("Read replica {} taken out of rotation: {}", name, reason);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.synchrony.ParallelProcessingApplication.dataconfig;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.redis")
+public class RedisClientProperties {
+
+    // A command not answered within this fails with a RedisCommandTimeoutException instead of holding its caller
+    private Duration commandTimeout = Duration.ofSeconds(2);
+
+    private Duration connectTimeout = Duration.ofSeconds(1);
+
+    // Plain commands are multiplexed over one shared connection; pipelines and transactions take a dedicated one
+    private boolean shareNativeConnection = true;
+
+    // Commands Lettuce buffers while disconnected; past it they fail at once rather than piling up in memory
+    private int requestQueueSize = 10_000;
+
+    // When the commands of a pipeline are written to the socket
+    private PipelineFlush pipelineFlush = PipelineFlush.ON_CLOSE;
+
+    // Commands per socket write with BUFFERED
+    private int pipelineFlushBufferSize = 100;
+
+    // Dedicated connections; without the pool every pipeline opens and closes a connection of its own
+    private Pool pool = new Pool();
+
+    public enum PipelineFlush {
+        // Every command as it is queued, Lettuce's default
+        EACH_COMMAND,
+        // Every pipelineFlushBufferSize commands
+        BUFFERED,
+        // All of them when the pipeline is closed: one write per pipeline
+        ON_CLOSE
+    }
+
+    @Data
+    public static class Pool {
+        private boolean enabled = true;
+        // One connection stays with the near cache invalidation subscription
+        private int maxActive = 20;
+        private int maxIdle = 20;
+        private int minIdle = 0;
+        // How long a caller waits for a free connection before failing
+        private Duration maxWait = Duration.ofMillis(500);
+    }
+}
@@ -1,24 +1,96 @@
 package com.synchrony.ParallelProcessingApplication.dataconfig;
 
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisPassword;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnection.PipeliningFlushPolicy;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
 import org.springframework.data.redis.core.RedisTemplate;
 
+import com.synchrony.ParallelProcessingApplication.cache.UserRedisSerializer;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.resource.ClientResources;
+
 @Configuration
 public class RedisConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisConfig.class);
+
+    // Server and credentials from spring.data.redis.*, client tuning from app.redis.*; the client resources
+    // are Spring Boot's, which record command latencies as lettuce.command.* meters
     @Bean
-    public RedisConnectionFactory redisConnectionFactory() {
-        LettuceConnectionFactory factory = new LettuceConnectionFactory();
+    public RedisConnectionFactory redisConnectionFactory(RedisProperties redisProperties,
+            RedisClientProperties clientProperties, ClientResources clientResources) {
+        RedisStandaloneConfiguration server = new RedisStandaloneConfiguration(redisProperties.getHost(),
+                redisProperties.getPort());
+        server.setDatabase(redisProperties.getDatabase());
+        server.setUsername(redisProperties.getUsername());
+        server.setPassword(RedisPassword.of(redisProperties.getPassword()));
+
+        RedisClientProperties.Pool pool = clientProperties.getPool();
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder client = pool.isEnabled()
+                ? LettucePoolingClientConfiguration.builder().poolConfig(poolConfig(pool))
+                : LettuceClientConfiguration.builder();
+        if (redisProperties.getSsl().isEnabled()) {
+            client.useSsl();
+        }
+        client.clientResources(clientResources)
+                .commandTimeout(clientProperties.getCommandTimeout())
+                .clientOptions(ClientOptions.builder()
+                        .socketOptions(SocketOptions.builder().connectTimeout(clientProperties.getConnectTimeout()).build())
+                        .timeoutOptions(TimeoutOptions.enabled(clientProperties.getCommandTimeout()))
+                        .requestQueueSize(clientProperties.getRequestQueueSize())
+                        .build());
+
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(server, client.build());
+        factory.setShareNativeConnection(clientProperties.isShareNativeConnection());
+        factory.setPipeliningFlushPolicy(flushPolicy(clientProperties));
+        logger.info("Redis {}:{}: {} connection, pool {}, command timeout {}, pipelines flushed {}",
+                server.getHostName(), server.getPort(), clientProperties.isShareNativeConnection() ? "shared" : "pooled",
+                pool.isEnabled() ? pool.getMaxActive() + " connections" : "off", clientProperties.getCommandTimeout(),
+                clientProperties.getPipelineFlush());
         return factory;
     }
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate() {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory redisConnectionFactory,
+            CacheProperties cacheProperties) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
-        template.setConnectionFactory(redisConnectionFactory());
-      
+        template.setConnectionFactory(redisConnectionFactory);
+        // Keys keep the default serializer so existing entries and their invalidations still line up
+        template.setValueSerializer(new UserRedisSerializer(cacheProperties.getSerializer().isCompact(),
+                cacheProperties.getSerializer().getCompressionThreshold()));
         return template;
     }
+
+    private static GenericObjectPoolConfig<StatefulConnection<?, ?>> poolConfig(RedisClientProperties.Pool pool) {
+        GenericObjectPoolConfig<StatefulConnection<?, ?>> config = new GenericObjectPoolConfig<>();
+        config.setMaxTotal(pool.getMaxActive());
+        config.setMaxIdle(pool.getMaxIdle());
+        config.setMinIdle(pool.getMinIdle());
+        config.setMaxWait(pool.getMaxWait());
+        // ConnectionPoolMetrics reads the pool's saturation and borrow waits from the MBean under this name
+        config.setJmxNamePrefix(ConnectionPoolMetrics.REDIS_POOL_JMX_PREFIX);
+        return config;
+    }
+
+    private static PipeliningFlushPolicy flushPolicy(RedisClientProperties clientProperties) {
+        return switch (clientProperties.getPipelineFlush()) {
+            case EACH_COMMAND -> PipeliningFlushPolicy.flushEachCommand();
+            case BUFFERED -> PipeliningFlushPolicy.buffered(clientProperties.getPipelineFlushBufferSize());
+            case ON_CLOSE -> PipeliningFlushPolicy.flushOnClose();
+        };
+    }
 }
@@ -0,0 +1,32 @@
+package com.synchrony.ParallelProcessingApplication.dataconfig;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.datasource")
+public class ReplicaProperties {
+
+    // Read replicas for read-only transactions; none means every read goes to spring.datasource
+    private List<Replica> replicas = new ArrayList<>();
+
+    // How often each replica is probed; a replica that fails the probe or a connection is skipped until it passes
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    // Reads of a user written on this node go to the primary for this long, to cover replication lag; zero disables.
+    // Also how long values read from a replica are cached in Redis, as they may miss a write made on another node
+    private Duration pinAfterWrite = Duration.ofSeconds(2);
+
+    // Credentials default to those of spring.datasource
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -1,22 +1,57 @@
 package com.synchrony.ParallelProcessingApplication.dataconfig;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 import java.util.concurrent.Executor;
 
 @Configuration
 public class ThreadPoolConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(ThreadPoolConfig.class);
+
+    // Database work; also the default for plain @Async under its old name, taskExecutor
+    @Bean(name = { "dbExecutor", "taskExecutor" })
+    public Executor dbExecutor(Environment environment, ExecutorProperties executorProperties,
+            MeterRegistry meterRegistry) {
+        return executor("db", executorProperties.getDb(), executorProperties.getVirtualConcurrencyLimit(),
+                environment, meterRegistry);
+    }
+
+    // Export jobs, apart from dbExecutor so long exports cannot starve request-driven database work
     @Bean
-    public Executor taskExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(10);
-        executor.setMaxPoolSize(20);
-        executor.setQueueCapacity(50);
-        executor.setThreadNamePrefix("Async-Thread-");
-        executor.initialize();
-        return executor;
+    public Executor exportExecutor(Environment environment, ExecutorProperties executorProperties,
+            MeterRegistry meterRegistry) {
+        ExecutorProperties.Pool pool = executorProperties.getExport();
+        return executor("export", pool, pool.getMaxSize(), environment, meterRegistry);
+    }
+
+    // spring.threads.virtual.enabled also moves Tomcat request handling onto virtual threads (Java 21+)
+    private Executor executor(String name, ExecutorProperties.Pool pool, int virtualConcurrencyLimit,
+            Environment environment, MeterRegistry meterRegistry) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(name + "-virtual-");
+            executor.setVirtualThreads(true);
+            // Threads are cheap here, so bound concurrency by the resource behind the pool instead of a thread count
+            executor.setConcurrencyLimit(virtualConcurrencyLimit);
+            logger.info("Using virtual threads for {} work, concurrency limit {}", name, virtualConcurrencyLimit);
+            return executor;
+        }
+        if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            logger.warn("Virtual threads requested but Java {} does not support them, using the platform {} pool",
+                    Runtime.version().feature(), name);
+        }
+
+        logger.info("Executor {}: {}-{} threads, queue {}, {} when saturated, adaptive sizing {}", name,
+                pool.getCoreSize(), pool.getMaxSize(), pool.getQueueCapacity(), pool.getRejection(),
+                pool.isAdaptive() ? "on" : "off");
+        return new AdaptiveThreadPoolExecutor(name, pool, meterRegistry);
     }
 }
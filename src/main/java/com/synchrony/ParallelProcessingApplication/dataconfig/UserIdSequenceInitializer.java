@@ -0,0 +1,53 @@
+package com.synchrony.ParallelProcessingApplication.dataconfig;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+import com.synchrony.ParallelProcessingApplication.model.UserEntity;
+
+/**
+ * Migration path from IDENTITY to the pooled user ID sequence.
+ * <p>
+ * Rows created under IDENTITY keep their IDs; on startup the sequence is moved past the highest
+ * existing ID so the first allocated block cannot collide with them. On MySQL the sequence is the
+ * single-row {@code user_id_seq} table Hibernate emulates it with. The update only ever moves the
+ * sequence forward, so it is safe to run on every node and every restart.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class UserIdSequenceInitializer implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserIdSequenceInitializer.class);
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserIdSequenceInitializer(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, metaData -> metaData.getDatabaseProductName());
+        if (!"MySQL".equalsIgnoreCase(product)) {
+            logger.info("Skipping user ID sequence alignment on {}", product);
+            return;
+        }
+        Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from user_entity", Long.class);
+        // Hibernate's pooled optimizer treats the stored value as the top of the next block
+        long floor = maxId + UserEntity.ID_ALLOCATION_SIZE;
+        int updated = jdbcTemplate.update(
+                "update " + UserEntity.ID_SEQUENCE + " set next_val = ? where next_val < ?", floor, floor);
+        if (updated > 0) {
+            logger.info("Moved {} past existing user IDs to {}", UserEntity.ID_SEQUENCE, floor);
+        }
+    }
+}
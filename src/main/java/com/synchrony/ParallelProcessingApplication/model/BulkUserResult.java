@@ -0,0 +1,21 @@
+package com.synchrony.ParallelProcessingApplication.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of one record in a bulk request, reported in request order
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUserResult {
+
+    public enum Status {
+        CREATED, UPDATED, FAILED
+    }
+
+    private int index;
+    private Long id;
+    private Status status;
+    private String error;
+}
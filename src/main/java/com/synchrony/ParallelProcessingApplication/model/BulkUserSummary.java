@@ -0,0 +1,27 @@
+package com.synchrony.ParallelProcessingApplication.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Counts of a bulk delete or update: affected rows, IDs left alone because nothing would change or no
+// such user exists, IDs in chunks that failed and were rolled back, and users at another version than
+// the update expected
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUserSummary {
+
+    private int requested;
+    private int affected;
+    private int unchanged;
+    private int notFound;
+    private int failed;
+    private int conflicts;
+
+    public BulkUserSummary add(BulkUserSummary other) {
+        return new BulkUserSummary(requested + other.requested, affected + other.affected,
+                unchanged + other.unchanged, notFound + other.notFound, failed + other.failed,
+                conflicts + other.conflicts);
+    }
+}
@@ -0,0 +1,21 @@
+package com.synchrony.ParallelProcessingApplication.model;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A change applied to every listed user; emails are unique, so name is the one field a set can share.
+// versions maps an ID to the version the client read; a user now at another version is a conflict and
+// left alone. IDs without one are updated whatever their version (last writer wins)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUserUpdate {
+
+    private List<Long> ids;
+    private String name;
+    private Map<Long, Long> versions;
+}
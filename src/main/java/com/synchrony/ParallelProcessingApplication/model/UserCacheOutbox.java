@@ -0,0 +1,56 @@
+package com.synchrony.ParallelProcessingApplication.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One pending change to a cached user, written in the same transaction as the change itself and
+ * removed once Redis reflects it. Writers outside the application (batch jobs, SQL fixes) keep the
+ * cache coherent by inserting a row here too, reserving its ID from the pooled sequence table the
+ * way Hibernate does so it cannot collide with IDs the application holds:
+ * <pre>
+ * update user_cache_outbox_seq set next_val = last_insert_id(next_val + 50);
+ * insert into user_cache_outbox (id, user_id, created_at) values (last_insert_id() - 50, ?, now(6));
+ * </pre>
+ */
+@Entity
+@Data
+@NoArgsConstructor
+public class UserCacheOutbox {
+
+    private static final String ID_GENERATOR = "user_cache_outbox_id_generator";
+
+    // Pooled like the user IDs, so the rows of a bulk save are inserted in JDBC batches
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_GENERATOR)
+    @SequenceGenerator(name = ID_GENERATOR, sequenceName = "user_cache_outbox_seq",
+            allocationSize = UserEntity.ID_ALLOCATION_SIZE)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Email the user had before this change, when the change moved or removed it; its email key is deleted
+    private String previousEmail;
+
+    public UserCacheOutbox(Long userId) {
+        this.userId = userId;
+        this.createdAt = Instant.now();
+    }
+
+    public UserCacheOutbox(Long userId, String previousEmail) {
+        this(userId);
+        this.previousEmail = previousEmail;
+    }
+}
@@ -2,15 +2,29 @@ package com.synchrony.ParallelProcessingApplication.model;
 
 import java.io.Serializable;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+// Updates only write the columns that changed, plus the version. Emails are unique and looked up
+// through their index; the name index serves prefix searches (name like 'abc%') as range scans.
 @Entity
+@Table(indexes = {
+        @Index(name = UserEntity.EMAIL_INDEX, columnList = "email", unique = true),
+        @Index(name = "ix_user_entity_name", columnList = "name") })
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 public class UserEntity implements Serializable{
@@ -18,11 +32,24 @@ public class UserEntity implements Serializable{
 	
     private static final long serialVersionUID = 1L;
 
+    public static final String ID_SEQUENCE = "user_id_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+    public static final String EMAIL_INDEX = "ux_user_entity_email";
+    private static final String ID_GENERATOR = "user_id_generator";
+
+    // Pooled sequence (a table on MySQL) so IDs are allocated in blocks and inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_GENERATOR)
+    @SequenceGenerator(name = ID_GENERATOR, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     private String name;
     private String email;
+
+    // Optimistic lock: every update checks and bumps it; rows created before the column existed start at 0
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
     
 
     
@@ -47,12 +74,22 @@ public class UserEntity implements Serializable{
 	public void setEmail(String email) {
 		this.email = email;
 	}
+	public Long getVersion() {
+		return version;
+	}
+	public void setVersion(Long version) {
+		this.version = version;
+	}
 	public UserEntity(Long id, String name, String email) {
 		super();
 		this.id = id;
 		this.name = name;
 		this.email = email;
 	}
+	public UserEntity(Long id, String name, String email, Long version) {
+		this(id, name, email);
+		this.version = version;
+	}
 
     
     
@@ -0,0 +1,13 @@
+package com.synchrony.ParallelProcessingApplication.model;
+
+import java.time.Instant;
+
+// Progress of one export job as reported by the status endpoint; totalRows is the row count when the job started
+public record UserExportStatus(String id, String format, State state, int partitions, int partitionsDone,
+        long rows, long totalRows, long bytes, Instant startedAt, Instant finishedAt, double rowsPerSecond,
+        String error) {
+
+    public enum State {
+        RUNNING, COMPLETE, FAILED
+    }
+}
@@ -0,0 +1,16 @@
+package com.synchrony.ParallelProcessingApplication.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One entry of a multi-get, in request order; user is null when found is false
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserLookupResult {
+
+    private Long id;
+    private boolean found;
+    private UserView user;
+}
@@ -0,0 +1,20 @@
+package com.synchrony.ParallelProcessingApplication.model;
+
+/**
+ * Immutable read-side view of a user, as returned by the lookup and list endpoints.
+ * <p>
+ * Repository queries select it with a constructor expression, so Hibernate creates plain objects:
+ * no managed entity, no dirty-checking snapshot and no persistence context entry per row.
+ * The version is the one the user endpoints send as the ETag.
+ */
+public record UserView(Long id, String name, String email, Long version) {
+
+    public static UserView of(UserEntity user) {
+        return new UserView(user.getId(), user.getName(), user.getEmail(), user.getVersion());
+    }
+
+    // Detached entity for the caches, which store UserEntity
+    public UserEntity toEntity() {
+        return new UserEntity(id, name, email, version);
+    }
+}
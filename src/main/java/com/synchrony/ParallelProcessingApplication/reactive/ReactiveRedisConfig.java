@@ -0,0 +1,34 @@
+package com.synchrony.ParallelProcessingApplication.reactive;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.synchrony.ParallelProcessingApplication.cache.UserRedisSerializer;
+import com.synchrony.ParallelProcessingApplication.dataconfig.CacheProperties;
+
+@Configuration
+@Profile(ReactiveUsersApplication.PROFILE)
+public class ReactiveRedisConfig {
+
+    @Bean
+    public UserRedisSerializer userRedisSerializer(CacheProperties cacheProperties) {
+        return new UserRedisSerializer(cacheProperties.getSerializer().isCompact(),
+                cacheProperties.getSerializer().getCompressionThreshold());
+    }
+
+    // Same key and value serializers as the blocking RedisTemplate, so both stacks read each other's entries
+    @Bean
+    public ReactiveRedisTemplate<String, Object> reactiveUserRedisTemplate(
+            ReactiveRedisConnectionFactory connectionFactory, UserRedisSerializer userRedisSerializer) {
+        RedisSerializationContext<String, Object> context = RedisSerializationContext
+                .<String, Object>newSerializationContext(RedisSerializer.java(getClass().getClassLoader()))
+                .value(userRedisSerializer)
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
+}
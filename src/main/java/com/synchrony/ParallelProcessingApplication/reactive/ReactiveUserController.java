@@ -0,0 +1,97 @@
+package com.synchrony.ParallelProcessingApplication.reactive;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.synchrony.ParallelProcessingApplication.controller.UserController;
+import com.synchrony.ParallelProcessingApplication.model.UserEntity;
+import com.synchrony.ParallelProcessingApplication.service.UserVersionMismatchException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Same paths and responses as UserController, served without blocking
+@RestController
+@RequestMapping("/users")
+@Profile(ReactiveUsersApplication.PROFILE)
+public class ReactiveUserController {
+
+    static final int MAX_PAGE_SIZE = 1000;
+
+    @Autowired
+    private ReactiveUserService userService;
+
+    // Create or update a user
+    @PostMapping("/create")
+    public Mono<ResponseEntity<UserEntity>> saveUser(@RequestBody UserEntity user) {
+        return userService.saveUser(user)
+                .map(ResponseEntity::ok)
+                .onErrorReturn(ResponseEntity.status(500).build()); // Internal Server Error
+    }
+
+    // Get a user by ID
+    @GetMapping("/getuser/{id}")
+    public Mono<ResponseEntity<UserEntity>> getUserById(@PathVariable Long id) {
+        return userService.getUserById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // Get all users, one keyset page at a time
+    @GetMapping(value = "/getAll", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<UserEntity>>> getAllUsers(@RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(defaultValue = "100") int size) {
+        if (afterId < 0 || size < 1) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+        return userService.getAllUsers(afterId, pageSize)
+                .map(users -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (users.size() == pageSize) {
+                        // Cursor for the next page; absent on the last page
+                        response.header(UserController.NEXT_AFTER_ID_HEADER,
+                                String.valueOf(users.get(users.size() - 1).getId()));
+                    }
+                    return response.body(users);
+                })
+                .onErrorReturn(ResponseEntity.status(500).build()); // Internal Server Error
+    }
+
+    // Stream all users as newline-delimited JSON, one row at a time as the client reads
+    @GetMapping(value = "/getAll", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserEntity> streamAllUsers() {
+        return userService.streamAllUsers();
+    }
+
+    // Update an existing user; 412 when If-Match names another version, 409 when the body's version is stale
+    @PutMapping("/updateuser/{id}")
+    public Mono<ResponseEntity<UserEntity>> updateUser(@PathVariable Long id, @RequestBody UserEntity user,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = UserController.versionOf(ifMatch);
+        return userService.updateUser(id, user, expectedVersion)
+                .map(updatedUser -> updatedUser.getVersion() != null
+                        ? ResponseEntity.ok().eTag(UserController.eTag(updatedUser.getVersion())).body(updatedUser)
+                        : ResponseEntity.ok(updatedUser))
+                .onErrorResume(UserVersionMismatchException.class, e -> Mono.just(expectedVersion != null
+                        ? ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                                .eTag(UserController.eTag(e.getCurrentVersion())).<UserEntity>build()
+                        : ResponseEntity.status(HttpStatus.CONFLICT).<UserEntity>build()))
+                .onErrorReturn(ResponseEntity.notFound().build());
+    }
+
+    // Delete a user
+    @DeleteMapping("/deleteuser/{id}")
+    public Mono<ResponseEntity<Void>> deleteUser(@PathVariable Long id) {
+        return userService.deleteUser(id)
+                .then(Mono.just(ResponseEntity.noContent().<Void>build()))
+                .onErrorReturn(ResponseEntity.notFound().build());
+    }
+}
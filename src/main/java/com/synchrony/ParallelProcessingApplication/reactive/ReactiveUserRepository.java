@@ -0,0 +1,158 @@
+package com.synchrony.ParallelProcessingApplication.reactive;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.synchrony.ParallelProcessingApplication.model.UserEntity;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2DBC access to the {@code user_entity} table that JPA maps {@link UserEntity} to.
+ * <p>
+ * New IDs come from the same {@link UserEntity#ID_SEQUENCE} as Hibernate's pooled optimizer, one
+ * block of {@link UserEntity#ID_ALLOCATION_SIZE} at a time, so inserts from either stack never
+ * collide. On MySQL the sequence is the single-row table Hibernate emulates it with.
+ */
+@Repository
+@Profile(ReactiveUsersApplication.PROFILE)
+public class ReactiveUserRepository {
+
+    private static final String COLUMNS = "select id, name, email, version from user_entity";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final AtomicReference<IdBlock> ids = new AtomicReference<>(new IdBlock(1, 0));
+
+    public ReactiveUserRepository(DatabaseClient databaseClient, TransactionalOperator transactionalOperator) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    public Mono<UserEntity> findById(Long id) {
+        return databaseClient.sql(COLUMNS + " where id = :id")
+                .bind("id", id)
+                .map(ReactiveUserRepository::toUser)
+                .one();
+    }
+
+    // All users in an inclusive ID range, used to build one cached segment
+    public Flux<UserEntity> findByIdBetween(long fromId, long toId) {
+        return databaseClient.sql(COLUMNS + " where id between :fromId and :toId order by id")
+                .bind("fromId", fromId)
+                .bind("toId", toId)
+                .map(ReactiveUserRepository::toUser)
+                .all();
+    }
+
+    // ID of the first user after an ID, used to skip over empty ID ranges
+    public Mono<Long> findFirstIdGreaterThan(long id) {
+        return databaseClient.sql("select id from user_entity where id > :id order by id limit 1")
+                .bind("id", id)
+                .map(row -> row.get("id", Long.class))
+                .one();
+    }
+
+    // Every user in ID order, emitted as rows arrive
+    public Flux<UserEntity> findAll() {
+        return databaseClient.sql(COLUMNS + " order by id")
+                .map(ReactiveUserRepository::toUser)
+                .all();
+    }
+
+    public Mono<UserEntity> insert(UserEntity user) {
+        return nextId().flatMap(id -> bindFields(databaseClient
+                .sql("insert into user_entity (id, name, email, version) values (:id, :name, :email, 0)")
+                .bind("id", id), user)
+                .fetch()
+                .rowsUpdated()
+                .thenReturn(new UserEntity(id, user.getName(), user.getEmail(), 0L)));
+    }
+
+    // Updates name and email and bumps the version the JPA stack checks; with an expected version, only while the
+    // row is still at it. Empty when there is no user with the ID or it has moved on
+    public Mono<UserEntity> update(Long id, UserEntity user, Long expectedVersion) {
+        String sql = "update user_entity set name = :name, email = :email, version = version + 1 where id = :id";
+        DatabaseClient.GenericExecuteSpec spec = expectedVersion == null ? databaseClient.sql(sql)
+                : databaseClient.sql(sql + " and version = :version").bind("version", expectedVersion);
+        return bindFields(spec.bind("id", id), user)
+                .fetch()
+                .rowsUpdated()
+                .filter(rows -> rows > 0)
+                .flatMap(rows -> findById(id));
+    }
+
+    // Number of rows deleted, zero when there was no user with the ID
+    public Mono<Long> deleteById(Long id) {
+        return databaseClient.sql("delete from user_entity where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    // Next ID from the current block; the first caller to find it exhausted reserves a new one
+    private Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            IdBlock current = ids.get();
+            long id = current.next.getAndIncrement();
+            if (id <= current.max) {
+                return Mono.just(id);
+            }
+            return reserveBlock().map(block -> {
+                ids.set(block);
+                return block.next.getAndIncrement();
+            });
+        });
+    }
+
+    // Hibernate's pooled optimizer treats the sequence value as the top of the block it reserves
+    private Mono<IdBlock> reserveBlock() {
+        int blockSize = UserEntity.ID_ALLOCATION_SIZE;
+        Mono<Long> top;
+        if (databaseClient.getConnectionFactory().getMetadata().getName().contains("MySQL")) {
+            top = transactionalOperator.transactional(databaseClient
+                    .sql("select next_val from " + UserEntity.ID_SEQUENCE + " for update")
+                    .map(row -> row.get("next_val", Long.class))
+                    .one()
+                    .flatMap(value -> databaseClient
+                            .sql("update " + UserEntity.ID_SEQUENCE + " set next_val = :next where next_val = :value")
+                            .bind("next", value + blockSize)
+                            .bind("value", value)
+                            .fetch()
+                            .rowsUpdated()
+                            .thenReturn(value)));
+        } else {
+            top = databaseClient.sql("select next value for " + UserEntity.ID_SEQUENCE)
+                    .map(row -> row.get(0, Long.class))
+                    .one();
+        }
+        return top.map(value -> new IdBlock(Math.max(1, value - blockSize + 1), value));
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindFields(DatabaseClient.GenericExecuteSpec spec, UserEntity user) {
+        spec = user.getName() != null ? spec.bind("name", user.getName()) : spec.bindNull("name", String.class);
+        return user.getEmail() != null ? spec.bind("email", user.getEmail()) : spec.bindNull("email", String.class);
+    }
+
+    private static UserEntity toUser(Readable row) {
+        return new UserEntity(row.get("id", Long.class), row.get("name", String.class), row.get("email", String.class),
+                row.get("version", Long.class));
+    }
+
+    private static final class IdBlock {
+        private final AtomicLong next;
+        private final long max;
+
+        private IdBlock(long next, long max) {
+            this.next = new AtomicLong(next);
+            this.max = max;
+        }
+    }
+}
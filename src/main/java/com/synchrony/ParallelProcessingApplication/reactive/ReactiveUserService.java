@@ -0,0 +1,238 @@
+package com.synchrony.ParallelProcessingApplication.reactive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import com.synchrony.ParallelProcessingApplication.cache.UserCacheMetrics;
+import com.synchrony.ParallelProcessingApplication.cache.UserRedisSerializer;
+import com.synchrony.ParallelProcessingApplication.dataconfig.CacheProperties;
+import com.synchrony.ParallelProcessingApplication.model.UserEntity;
+import com.synchrony.ParallelProcessingApplication.service.UserService;
+import com.synchrony.ParallelProcessingApplication.service.UserVersionMismatchException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cache-aside user reads and writes without blocking a thread on Redis or the database.
+ * <p>
+ * Mirrors {@link UserService}: users are cached under {@code USER_{id}} and fixed ID ranges under
+ * {@code USERS_SEGMENT_{n}}, with the same per-family TTLs and payload limits, and concurrent misses
+ * for the same key share one load. After a write the user's entry is refreshed, its segment and the
+ * email keys of its old and new email deleted, and the ID broadcast on the near cache invalidation
+ * channel, so blocking nodes drop their copy.
+ */
+@Service
+@Profile(ReactiveUsersApplication.PROFILE)
+public class ReactiveUserService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveUserService.class);
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Autowired
+    private ReactiveRedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private ReactiveStringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private UserRedisSerializer userRedisSerializer;
+
+    @Autowired
+    private UserCacheMetrics cacheMetrics;
+
+    @Autowired
+    private CacheProperties cacheProperties;
+
+    private final Map<Long, Mono<UserEntity>> userLoads = new ConcurrentHashMap<>();
+    private final Map<Long, Mono<List<UserEntity>>> segmentLoads = new ConcurrentHashMap<>();
+
+    // Create a user, or update it when the ID already exists
+    public Mono<UserEntity> saveUser(UserEntity user) {
+        Mono<UserEntity> existing = user.getId() == null ? Mono.empty() : userRepository.update(user.getId(), user, null);
+        return previousEmail(user.getId())
+                .flatMap(previousEmail -> existing.switchIfEmpty(Mono.defer(() -> userRepository.insert(user)))
+                        .flatMap(savedUser -> refreshCache(savedUser.getId(), savedUser, previousEmail.orElse(null))
+                                .thenReturn(savedUser)))
+                .doOnError(e -> logger.error("Error while saving user: {}", e.getMessage(), e))
+                .onErrorMap(e -> new RuntimeException("Failed to save user"));
+    }
+
+    // Get a user by ID
+    public Mono<UserEntity> getUserById(Long id) {
+        return singleFlight(userLoads, id, () -> loadUser(id))
+                .doOnError(e -> logger.error("Error while fetching user by ID: {}", id, e))
+                .onErrorMap(e -> new RuntimeException("Failed to fetch user"));
+    }
+
+    private Mono<UserEntity> loadUser(Long id) {
+        String cacheKey = UserService.CACHE_KEY_PREFIX + id;
+        return redisTemplate.opsForValue().get(cacheKey)
+                .cast(UserEntity.class)
+                .doOnNext(user -> cacheMetrics.hit(UserCacheMetrics.TIER_L2))
+                .switchIfEmpty(Mono.defer(() -> {
+                    cacheMetrics.miss(UserCacheMetrics.TIER_L2);
+                    logger.debug("Fetching user from database for ID: {}", id);
+                    return userRepository.findById(id)
+                            .flatMap(user -> cache(cacheKey, user, cacheProperties.getPolicy().getUser()).thenReturn(user));
+                }));
+    }
+
+    // Get one keyset page of users with IDs greater than afterId
+    public Mono<List<UserEntity>> getAllUsers(Long afterId, int size) {
+        long cursor = afterId == null ? 0L : afterId;
+        return page(cursor, size, segmentOf(cursor + 1), new ArrayList<>(size))
+                .doOnError(e -> logger.error("Error while fetching all users: {}", e.getMessage(), e))
+                .onErrorMap(e -> new RuntimeException("Failed to fetch all users"));
+    }
+
+    private Mono<List<UserEntity>> page(long cursor, int size, long segment, List<UserEntity> page) {
+        return getSegment(segment).flatMap(users -> {
+            for (UserEntity user : users) {
+                if (user.getId() > cursor) {
+                    page.add(user);
+                    if (page.size() == size) {
+                        return Mono.just(page);
+                    }
+                }
+            }
+            if (!users.isEmpty()) {
+                return page(cursor, size, segment + 1, page);
+            }
+            // Jump over the empty ID range straight to the segment of the next user
+            return userRepository.findFirstIdGreaterThan(segmentEnd(segment))
+                    .flatMap(nextId -> page(cursor, size, segmentOf(nextId), page))
+                    .defaultIfEmpty(page);
+        });
+    }
+
+    // Every user straight from the database, in ID order, with backpressure from the client
+    public Flux<UserEntity> streamAllUsers() {
+        return userRepository.findAll();
+    }
+
+    // Load one fixed ID range of users, from Redis when cached
+    private Mono<List<UserEntity>> getSegment(long segment) {
+        return singleFlight(segmentLoads, segment, () -> loadSegment(segment));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<List<UserEntity>> loadSegment(long segment) {
+        String segmentKey = UserService.CACHE_KEY_SEGMENT_PREFIX + segment;
+        return redisTemplate.opsForValue().get(segmentKey)
+                .map(cachedUsers -> (List<UserEntity>) cachedUsers)
+                .switchIfEmpty(Mono.defer(() -> {
+                    logger.debug("Fetching users segment {} from database", segment);
+                    return userRepository.findByIdBetween(segmentStart(segment), segmentEnd(segment))
+                            .collectList()
+                            .flatMap(users -> cache(segmentKey, users, cacheProperties.getPolicy().getSegment())
+                                    .thenReturn(users));
+                }));
+    }
+
+    // Update an existing user; the If-Match version, or else the one in the body, must match the stored one
+    public Mono<UserEntity> updateUser(Long id, UserEntity user, Long expectedVersion) {
+        Long expected = expectedVersion != null ? expectedVersion : user.getVersion();
+        return previousEmail(id).flatMap(previousEmail -> userRepository.update(id, user, expected)
+                // Nothing updated: either the user is gone or it is at another version than the client read
+                .switchIfEmpty(Mono.defer(() -> userRepository.findById(id)
+                        .filter(current -> expected != null)
+                        .flatMap(current -> Mono.<UserEntity>error(
+                                new UserVersionMismatchException(id, expected, current.getVersion())))
+                        .switchIfEmpty(Mono.error(() -> new RuntimeException("User not found")))))
+                .flatMap(updatedUser -> refreshCache(id, updatedUser, previousEmail.orElse(null))
+                        .thenReturn(updatedUser)))
+                .doOnError(e -> logger.error("Error while updating user: {}", e.getMessage(), e))
+                // A version conflict is reported as such rather than as a failure
+                .onErrorMap(e -> !(e instanceof UserVersionMismatchException),
+                        e -> new RuntimeException("Failed to update user"));
+    }
+
+    // Delete a user
+    public Mono<Void> deleteUser(Long id) {
+        return previousEmail(id)
+                .flatMap(previousEmail -> userRepository.deleteById(id)
+                        .flatMap(deleted -> refreshCache(id, null, previousEmail.orElse(null))))
+                .doOnSuccess(ignored -> logger.info("User deleted with ID: {}", id))
+                .doOnError(e -> logger.error("Error while deleting user: {}", e.getMessage(), e))
+                .onErrorMap(e -> new RuntimeException("Failed to delete user"));
+    }
+
+    // Email of the stored user, read before a write so its email key can be dropped after it
+    private Mono<Optional<String>> previousEmail(Long id) {
+        if (id == null) {
+            return Mono.just(Optional.empty());
+        }
+        return userRepository.findById(id)
+                .map(user -> Optional.ofNullable(user.getEmail()))
+                .defaultIfEmpty(Optional.empty());
+    }
+
+    // After a committed write: replace or remove the user's entry, drop its segment and the email keys of its
+    // old and new email (as the write-behind path does), and tell the near caches
+    private Mono<Void> refreshCache(Long id, UserEntity user, String previousEmail) {
+        String cacheKey = UserService.CACHE_KEY_PREFIX + id;
+        Mono<?> entry = user != null ? cache(cacheKey, user, cacheProperties.getPolicy().getUser())
+                : redisTemplate.delete(cacheKey);
+        List<String> staleKeys = new ArrayList<>(3);
+        staleKeys.add(UserService.CACHE_KEY_SEGMENT_PREFIX + segmentOf(id));
+        if (previousEmail != null) {
+            staleKeys.add(UserService.emailKey(previousEmail));
+        }
+        if (user != null && user.getEmail() != null && !user.getEmail().equalsIgnoreCase(previousEmail)) {
+            staleKeys.add(UserService.emailKey(user.getEmail()));
+        }
+        return entry
+                .then(redisTemplate.delete(staleKeys.toArray(String[]::new)))
+                .then(stringRedisTemplate.convertAndSend(cacheProperties.getNear().getInvalidationChannel(),
+                        String.valueOf(id)))
+                .then()
+                // The database write stands; a stale entry expires with its TTL
+                .onErrorResume(e -> {
+                    logger.error("Error while updating cache for user {}: {}", id, e.getMessage(), e);
+                    return Mono.empty();
+                });
+    }
+
+    // SET with the family's jittered TTL, or delete the key when the value is over its payload limit
+    private Mono<Boolean> cache(String key, Object value, CacheProperties.KeyFamily family) {
+        int size = userRedisSerializer.serialize(value).length;
+        if (size > family.getMaxPayloadBytes()) {
+            logger.warn("Not caching {}: {} bytes is over the {} byte limit", key, size, family.getMaxPayloadBytes());
+            return redisTemplate.delete(key).thenReturn(false);
+        }
+        return redisTemplate.opsForValue().set(key, value, family.jitteredTtl());
+    }
+
+    // Concurrent subscribers for the same key share one in-flight load
+    private static <K, V> Mono<V> singleFlight(Map<K, Mono<V>> loads, K key, Supplier<Mono<V>> loader) {
+        return Mono.defer(() -> loads.computeIfAbsent(key,
+                k -> loader.get().doFinally(signal -> loads.remove(k)).cache()));
+    }
+
+    private long segmentOf(long id) {
+        return id / cacheProperties.getSegmentSize();
+    }
+
+    private long segmentStart(long segment) {
+        return segment * cacheProperties.getSegmentSize();
+    }
+
+    private long segmentEnd(long segment) {
+        return segmentStart(segment + 1) - 1;
+    }
+}
@@ -0,0 +1,41 @@
+package com.synchrony.ParallelProcessingApplication.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+
+import com.synchrony.ParallelProcessingApplication.cache.UserCacheMetrics;
+import com.synchrony.ParallelProcessingApplication.dataconfig.CacheProperties;
+
+/**
+ * Non-blocking variant of the users API: WebFlux on Netty, R2DBC and reactive Redis, with no
+ * JDBC or JPA in the context. It shares the database tables, the Redis keys and value format and
+ * the near cache invalidation channel with {@code ParallelProcessingApplication}, so both stacks
+ * can serve the same data side by side.
+ * <p>
+ * Only this package is scanned, and its beans carry the {@code reactive} profile, which this main
+ * class activates, so the blocking application skips them. Settings are in
+ * {@code application-reactive.properties}.
+ */
+@SpringBootApplication(exclude = { DataSourceAutoConfiguration.class,
+        DataSourceTransactionManagerAutoConfiguration.class, HibernateJpaAutoConfiguration.class })
+@EnableConfigurationProperties(CacheProperties.class)
+@Import(UserCacheMetrics.class)
+@Profile(ReactiveUsersApplication.PROFILE)
+public class ReactiveUsersApplication {
+
+    public static final String PROFILE = "reactive";
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveUsersApplication.class)
+                .profiles(PROFILE)
+                .web(WebApplicationType.REACTIVE)
+                .run(args);
+    }
+}
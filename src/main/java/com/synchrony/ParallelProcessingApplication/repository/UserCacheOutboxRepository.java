@@ -0,0 +1,22 @@
+package com.synchrony.ParallelProcessingApplication.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.synchrony.ParallelProcessingApplication.model.UserCacheOutbox;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface UserCacheOutboxRepository extends JpaRepository<UserCacheOutbox, Long> {
+
+    // Oldest pending changes, locked until the transaction ends so only one node applies them
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from UserCacheOutbox o order by o.id")
+    List<UserCacheOutbox> lockOldest(Pageable page);
+}
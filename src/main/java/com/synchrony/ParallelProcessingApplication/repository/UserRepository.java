@@ -1,11 +1,98 @@
 package com.synchrony.ParallelProcessingApplication.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.synchrony.ParallelProcessingApplication.model.UserEntity;
+import com.synchrony.ParallelProcessingApplication.model.UserView;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface UserRepository extends JpaRepository<UserEntity,Long>{
 
+    // One user for a cache-miss load, as a plain UserView record rather than a managed entity
+    @Transactional(readOnly = true)
+    @Query("select new com.synchrony.ParallelProcessingApplication.model.UserView(u.id, u.name, u.email, u.version)"
+            + " from UserEntity u where u.id = :id")
+    Optional<UserView> findViewById(@Param("id") Long id);
+
+    // The cache misses of a multi-get
+    @Transactional(readOnly = true)
+    @Query("select new com.synchrony.ParallelProcessingApplication.model.UserView(u.id, u.name, u.email, u.version)"
+            + " from UserEntity u where u.id in :ids")
+    List<UserView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // All users in an inclusive ID range, used to build one cached segment
+    @Transactional(readOnly = true)
+    @Query("select new com.synchrony.ParallelProcessingApplication.model.UserView(u.id, u.name, u.email, u.version)"
+            + " from UserEntity u where u.id between :fromId and :toId order by u.id")
+    List<UserView> findViewsByIdBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    // One user by email, through the unique email index
+    @Transactional(readOnly = true)
+    @Query("select new com.synchrony.ParallelProcessingApplication.model.UserView(u.id, u.name, u.email, u.version)"
+            + " from UserEntity u where u.email = :email")
+    Optional<UserView> findViewByEmail(@Param("email") String email);
+
+    // Users whose name matches a LIKE pattern, in name order; a pattern ending in % with '!' escaping
+    // its wildcards is a range scan of the name index
+    @Transactional(readOnly = true)
+    @Query("select new com.synchrony.ParallelProcessingApplication.model.UserView(u.id, u.name, u.email, u.version)"
+            + " from UserEntity u where u.name like :pattern escape '!' order by u.name, u.id")
+    List<UserView> findViewsByNameLike(@Param("pattern") String pattern, Pageable page);
+
+    // Set-based writes for one bulk chunk: a single statement however many IDs it names. They bypass the
+    // persistence context, so the version is bumped here and the caller records the cache outbox rows.
+    // The update only matches rows still at the version the caller read
+    @Transactional
+    @Modifying
+    @Query("delete from UserEntity u where u.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("update UserEntity u set u.name = :name, u.version = u.version + 1"
+            + " where u.id in :ids and u.version = :version")
+    int updateNameByIdInAndVersion(@Param("ids") Collection<Long> ids, @Param("name") String name,
+            @Param("version") Long version);
+
+    // First user after an ID, used to skip over empty ID ranges
+    @Transactional(readOnly = true)
+    Optional<UserEntity> findFirstByIdGreaterThanOrderByIdAsc(Long id);
+
+    // Cursor over one inclusive ID range, for an export partition; must be consumed inside a transaction
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.synchrony.ParallelProcessingApplication.model.UserView(u.id, u.name, u.email, u.version)"
+            + " from UserEntity u where u.id between :fromId and :toId order by u.id")
+    Stream<UserView> streamByIdBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    // Lowest and highest user IDs, the range exports are split over; null when there are no users
+    @Transactional(readOnly = true)
+    @Query("select min(u.id) from UserEntity u")
+    Long findMinId();
+
+    @Transactional(readOnly = true)
+    @Query("select max(u.id) from UserEntity u")
+    Long findMaxId();
+
+    // Cursor over the whole table; must be consumed inside a transaction
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.synchrony.ParallelProcessingApplication.model.UserView(u.id, u.name, u.email, u.version)"
+            + " from UserEntity u order by u.id")
+    Stream<UserView> streamAll();
 }
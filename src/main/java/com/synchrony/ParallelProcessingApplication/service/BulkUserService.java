@@ -0,0 +1,280 @@
+package com.synchrony.ParallelProcessingApplication.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.synchrony.ParallelProcessingApplication.cache.UserCacheUpdateEvent;
+import com.synchrony.ParallelProcessingApplication.dataconfig.BulkProperties;
+import com.synchrony.ParallelProcessingApplication.model.BulkUserResult;
+import com.synchrony.ParallelProcessingApplication.model.BulkUserResult.Status;
+import com.synchrony.ParallelProcessingApplication.model.BulkUserSummary;
+import com.synchrony.ParallelProcessingApplication.model.BulkUserUpdate;
+import com.synchrony.ParallelProcessingApplication.model.UserEntity;
+import com.synchrony.ParallelProcessingApplication.model.UserView;
+import com.synchrony.ParallelProcessingApplication.repository.UserRepository;
+
+/**
+ * Bulk create/upsert, delete and update of users.
+ * <p>
+ * The payload is split into chunks that are saved in parallel on the database executor, each
+ * chunk in its own transaction so Hibernate can group the statements into JDBC batches. Each
+ * chunk writes its cache outbox rows in the same transaction, so the write-behind path caches the
+ * users and invalidates their segments and near cache entries in outbox-sized batches.
+ * <p>
+ * Bulk deletes and updates are set-based: a chunk is one {@code IN} query for the rows it names,
+ * one {@code DELETE} or {@code UPDATE} statement and one batch of outbox rows, instead of a select,
+ * a write and a cache round trip per user. Updates are versioned: a user at another version than
+ * the caller sent for it is a conflict, and the UPDATE only matches rows at the version just read.
+ */
+@Service
+public class BulkUserService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkUserService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BulkProperties bulkProperties;
+
+    @Autowired
+    @Qualifier("dbExecutor")
+    private Executor dbExecutor;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Save all users, returning one result per record in request order
+    public List<BulkUserResult> saveUsers(List<UserEntity> users) {
+        logger.info("Bulk saving {} users in chunks of {}", users.size(), bulkProperties.getChunkSize());
+
+        List<BulkUserResult> results = new ArrayList<>(users.size());
+        inChunks(users.size(), (from, to) -> saveChunk(users, from, to)).forEach(results::addAll);
+
+        long saved = results.stream().filter(result -> result.getStatus() != Status.FAILED).count();
+        logger.info("Bulk save finished: {} saved, {} failed", saved, results.size() - saved);
+        return results;
+    }
+
+    // Delete users by ID; per chunk one SELECT for their emails, one DELETE and one batch of outbox rows
+    public BulkUserSummary deleteUsers(List<Long> ids) {
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        logger.info("Bulk deleting {} users in chunks of {}", distinctIds.size(), bulkProperties.getChunkSize());
+        BulkUserSummary summary = inChunks(distinctIds.size(), (from, to) -> deleteChunk(distinctIds.subList(from, to)))
+                .stream()
+                .reduce(new BulkUserSummary(), BulkUserSummary::add);
+        logger.info("Bulk delete finished: {}", summary);
+        return summary;
+    }
+
+    // Set the name of users by ID; per chunk one SELECT, one UPDATE per version among the rows that change and
+    // one batch of outbox rows
+    public BulkUserSummary updateUsers(BulkUserUpdate update) {
+        List<Long> distinctIds = update.getIds().stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        Map<Long, Long> expectedVersions = update.getVersions() != null ? update.getVersions() : Map.of();
+        logger.info("Bulk updating {} users in chunks of {}", distinctIds.size(), bulkProperties.getChunkSize());
+        BulkUserSummary summary = inChunks(distinctIds.size(),
+                (from, to) -> updateChunk(distinctIds.subList(from, to), update.getName(), expectedVersions))
+                .stream()
+                .reduce(new BulkUserSummary(), BulkUserSummary::add);
+        logger.info("Bulk update finished: {}", summary);
+        return summary;
+    }
+
+    // Run [from, to) chunks of a payload in parallel on the database executor, returning their results in order
+    private <R> List<R> inChunks(int size, BiFunction<Integer, Integer, R> chunkWork) {
+        int chunkSize = bulkProperties.getChunkSize();
+
+        // Bound the chunks in flight so a large payload cannot overrun the executor queue
+        Semaphore inFlight = new Semaphore(bulkProperties.getParallelism());
+        List<CompletableFuture<R>> chunks = new ArrayList<>();
+        for (int start = 0; start < size; start += chunkSize) {
+            int from = start;
+            int to = Math.min(start + chunkSize, size);
+            inFlight.acquireUninterruptibly();
+            CompletableFuture<R> chunk;
+            try {
+                chunk = CompletableFuture.supplyAsync(() -> chunkWork.apply(from, to), dbExecutor);
+            } catch (RejectedExecutionException e) {
+                logger.warn("Database executor saturated, running chunk [{}, {}) on the calling thread", from, to);
+                chunk = CompletableFuture.completedFuture(chunkWork.apply(from, to));
+            }
+            chunks.add(chunk.whenComplete((result, error) -> inFlight.release()));
+        }
+
+        List<R> results = new ArrayList<>(chunks.size());
+        chunks.forEach(chunk -> results.add(chunk.join()));
+        return results;
+    }
+
+    // Save one chunk in a single transaction, isolating bad records if the batch fails
+    private List<BulkUserResult> saveChunk(List<UserEntity> users, int from, int to) {
+        List<UserEntity> chunk = users.subList(from, to);
+        List<Long> requestedIds = chunk.stream().map(UserEntity::getId).collect(Collectors.toList());
+        List<Long> requestedVersions = chunk.stream().map(UserEntity::getVersion).collect(Collectors.toList());
+        try {
+            return transactionTemplate.execute(status -> saveAll(chunk, from));
+        } catch (Exception e) {
+            logger.warn("Chunk [{}, {}) failed ({}), retrying record by record", from, to, e.getMessage());
+            List<BulkUserResult> results = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                UserEntity user = chunk.get(i);
+                user.setId(requestedIds.get(i)); // undo IDs and versions assigned by the rolled back insert
+                user.setVersion(requestedVersions.get(i));
+                int index = from + i;
+                try {
+                    results.addAll(transactionTemplate.execute(status -> saveAll(List.of(user), index)));
+                } catch (Exception recordError) {
+                    results.add(new BulkUserResult(index, user.getId(), Status.FAILED, recordError.getMessage()));
+                }
+            }
+            return results;
+        }
+    }
+
+    private List<BulkUserResult> saveAll(List<UserEntity> chunk, int offset) {
+        // One IN query tells creates from updates and loads the managed rows the updates are copied into;
+        // flushing them checks and bumps their versions, so a concurrent update fails the chunk instead of being lost
+        Set<Long> requestedIds = chunk.stream()
+                .map(UserEntity::getId)
+                .filter(id -> id != null)
+                .collect(Collectors.toSet());
+        Map<Long, UserEntity> existingUsers = new HashMap<>();
+        userRepository.findAllById(requestedIds).forEach(user -> existingUsers.put(user.getId(), user));
+
+        BulkUserResult[] results = new BulkUserResult[chunk.size()];
+        List<UserEntity> toSave = new ArrayList<>(chunk.size());
+        List<Integer> positions = new ArrayList<>(chunk.size());
+        List<String> previousEmails = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            UserEntity user = chunk.get(i);
+            Long requestedId = user.getId();
+            UserEntity existingUser = requestedId == null ? null : existingUsers.get(requestedId);
+            if (existingUser == null) {
+                // No ID, or an unknown one: saved like a new user, the same rule as POST /users/create
+                results[i] = new BulkUserResult(offset + i, requestedId, Status.CREATED, null);
+                toSave.add(user);
+                positions.add(i);
+                previousEmails.add(null);
+                continue;
+            }
+            if (user.getVersion() != null && !user.getVersion().equals(existingUser.getVersion())) {
+                results[i] = new BulkUserResult(offset + i, requestedId, Status.FAILED, "Version conflict");
+                continue;
+            }
+            results[i] = new BulkUserResult(offset + i, requestedId, Status.UPDATED, null);
+            if (Objects.equals(user.getName(), existingUser.getName())
+                    && Objects.equals(user.getEmail(), existingUser.getEmail())) {
+                continue; // Unchanged: no UPDATE and no outbox row
+            }
+            previousEmails.add(Objects.equals(user.getEmail(), existingUser.getEmail()) ? null : existingUser.getEmail());
+            existingUser.setName(user.getName());
+            existingUser.setEmail(user.getEmail());
+            toSave.add(existingUser);
+            positions.add(i);
+        }
+
+        List<UserEntity> saved = userRepository.saveAll(toSave);
+        List<UserCacheUpdateEvent> events = new ArrayList<>(saved.size());
+        for (int i = 0; i < saved.size(); i++) {
+            results[positions.get(i)].setId(saved.get(i).getId());
+            events.add(UserCacheUpdateEvent.saved(saved.get(i), previousEmails.get(i)));
+        }
+        // Outbox rows commit with the chunk and are flushed to Redis behind it
+        userService.recordCacheUpdates(events);
+        return List.of(results);
+    }
+
+    // Delete one chunk in a single transaction; a failed chunk rolls back whole and is counted as failed
+    private BulkUserSummary deleteChunk(List<Long> ids) {
+        try {
+            return transactionTemplate.execute(status -> {
+                List<UserView> existingUsers = userRepository.findViewsByIdIn(ids);
+                if (existingUsers.isEmpty()) {
+                    return new BulkUserSummary(ids.size(), 0, 0, ids.size(), 0, 0);
+                }
+                int deleted = userRepository.deleteByIdIn(existingUsers.stream().map(UserView::id).collect(Collectors.toList()));
+                // Outbox rows commit with the DELETE; the write-behind path unlinks the user and email keys in batches
+                userService.recordCacheUpdates(existingUsers.stream()
+                        .map(user -> UserCacheUpdateEvent.deleted(user.id(), user.email()))
+                        .collect(Collectors.toList()));
+                return new BulkUserSummary(ids.size(), deleted, 0, ids.size() - deleted, 0, 0);
+            });
+        } catch (Exception e) {
+            logger.warn("Bulk delete of {} users failed: {}", ids.size(), e.getMessage());
+            return new BulkUserSummary(ids.size(), 0, 0, 0, ids.size(), 0);
+        }
+    }
+
+    // Update one chunk in a single transaction, skipping users that already have the name and counting users
+    // at another version than expected as conflicts
+    private BulkUserSummary updateChunk(List<Long> ids, String name, Map<Long, Long> expectedVersions) {
+        try {
+            return transactionTemplate.execute(status -> {
+                List<UserView> existingUsers = userRepository.findViewsByIdIn(ids);
+                List<UserView> currentUsers = existingUsers.stream()
+                        .filter(user -> {
+                            Long expected = expectedVersions.get(user.id());
+                            return expected == null || expected.equals(user.version());
+                        })
+                        .collect(Collectors.toList());
+                int conflicts = existingUsers.size() - currentUsers.size();
+                List<UserView> changedUsers = currentUsers.stream()
+                        .filter(user -> !Objects.equals(user.name(), name))
+                        .collect(Collectors.toList());
+                int unchanged = currentUsers.size() - changedUsers.size();
+                int notFound = ids.size() - existingUsers.size();
+                if (changedUsers.isEmpty()) {
+                    return new BulkUserSummary(ids.size(), 0, unchanged, notFound, 0, conflicts);
+                }
+                // Each UPDATE only matches rows still at the version just read, so a write that lands in
+                // between rolls the chunk back instead of being overwritten
+                Map<Long, List<Long>> idsByVersion = changedUsers.stream().collect(Collectors.groupingBy(
+                        UserView::version, LinkedHashMap::new, Collectors.mapping(UserView::id, Collectors.toList())));
+                int updated = 0;
+                for (Map.Entry<Long, List<Long>> version : idsByVersion.entrySet()) {
+                    int rows = userRepository.updateNameByIdInAndVersion(version.getValue(), name, version.getKey());
+                    if (rows != version.getValue().size()) {
+                        throw new OptimisticLockingFailureException(
+                                (version.getValue().size() - rows) + " users changed while the chunk was updated");
+                    }
+                    updated += rows;
+                }
+                userService.recordCacheUpdates(changedUsers.stream()
+                        .map(user -> UserCacheUpdateEvent.saved(new UserEntity(user.id(), name, user.email(), user.version() + 1)))
+                        .collect(Collectors.toList()));
+                return new BulkUserSummary(ids.size(), updated, unchanged, notFound, 0, conflicts);
+            });
+        } catch (Exception e) {
+            logger.warn("Bulk update of {} users failed: {}", ids.size(), e.getMessage());
+            return new BulkUserSummary(ids.size(), 0, 0, 0, ids.size(), 0);
+        }
+    }
+}
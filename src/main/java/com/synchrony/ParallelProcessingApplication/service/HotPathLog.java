@@ -0,0 +1,41 @@
+package com.synchrony.ParallelProcessingApplication.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.springframework.stereotype.Component;
+
+import com.synchrony.ParallelProcessingApplication.dataconfig.LoggingProperties;
+
+/**
+ * Per-request log lines on hot paths, at the level chosen by {@code app.logging.hot-path} so they
+ * can be turned down under load without touching the logger configuration.
+ */
+@Component
+public class HotPathLog {
+
+    private final LoggingProperties.HotPathMode mode;
+    private final double sampleRate;
+
+    public HotPathLog(LoggingProperties loggingProperties) {
+        this.mode = loggingProperties.getHotPath();
+        this.sampleRate = loggingProperties.getSampleRate();
+    }
+
+    public void log(Logger logger, String format, Object... arguments) {
+        switch (mode) {
+        case INFO:
+            logger.info(format, arguments);
+            break;
+        case DEBUG:
+            logger.debug(format, arguments);
+            break;
+        default:
+            if (ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                logger.info(format, arguments);
+            } else {
+                logger.debug(format, arguments);
+            }
+        }
+    }
+}
@@ -1,20 +1,58 @@
 package com.synchrony.ParallelProcessingApplication.service;
 
-import java.util.concurrent.CompletableFuture;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.stereotype.Service;
 
+import com.synchrony.ParallelProcessingApplication.cache.RedisCachePolicy;
 import com.synchrony.ParallelProcessingApplication.model.UserEntity;
 
 @Service
 @EnableAsync
 public class ThreadService {
-    @Async
-    public CompletableFuture<Void> updateCache(UserEntity user, RedisTemplate<String, Object> redisTemplate) {
-        redisTemplate.opsForValue().set("USER_" + user.getId(), user);
-        return CompletableFuture.completedFuture(null);
+
+    @Autowired
+    private RedisCachePolicy cachePolicy;
+
+    @Autowired
+    private UserServiceMetrics metrics;
+
+    // Apply a batch of cached user writes in a single pipelined round trip, on the calling thread (the
+    // write-behind drain); a null user deletes the key. Also drops the email keys of emails users moved
+    // off, before the current emails are written, so an email that changed hands in the batch ends up
+    // pointing at its new owner. Keys are removed with one multi-key UNLINK per kind, which frees the
+    // values off Redis' main thread
+    public void writeCache(Map<Long, UserEntity> users, Collection<String> staleEmails,
+            RedisTemplate<String, Object> redisTemplate) {
+        metrics.redis("writeBehind", () -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            if (!staleEmails.isEmpty()) {
+                connection.keyCommands().unlink(staleEmails.stream()
+                        .map(email -> cachePolicy.rawKey(UserService.emailKey(email)))
+                        .toArray(byte[][]::new));
+            }
+            List<byte[]> deletedKeys = new ArrayList<>();
+            users.forEach((id, user) -> {
+                String cacheKey = UserService.CACHE_KEY_PREFIX + id;
+                if (user != null) {
+                    cachePolicy.set(connection, cacheKey, user); // TTL and size limits as for every user write
+                    if (user.getEmail() != null) {
+                        cachePolicy.set(connection, UserService.emailKey(user.getEmail()), id);
+                    }
+                } else {
+                    deletedKeys.add(cachePolicy.rawKey(cacheKey));
+                }
+            });
+            if (!deletedKeys.isEmpty()) {
+                connection.keyCommands().unlink(deletedKeys.toArray(new byte[0][]));
+            }
+            return null;
+        }));
     }
 }
@@ -0,0 +1,388 @@
+package com.synchrony.ParallelProcessingApplication.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.synchrony.ParallelProcessingApplication.dataconfig.ExportProperties;
+import com.synchrony.ParallelProcessingApplication.model.UserExportStatus;
+import com.synchrony.ParallelProcessingApplication.model.UserExportStatus.State;
+import com.synchrony.ParallelProcessingApplication.model.UserView;
+import com.synchrony.ParallelProcessingApplication.repository.UserRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Background export of the users table to gzip-compressed CSV or NDJSON files.
+ * <p>
+ * A job splits [lowest ID, highest ID] into {@code app.export.partitions} ranges and reads them in
+ * parallel on the export executor, whose size caps the connections all exports hold at once. Each
+ * range is read through streaming JDBC cursors in read-only transactions of
+ * {@code ids-per-transaction} IDs each, so it runs on a replica when there is one and hands its
+ * connection back between slices rather than holding it for the whole export. Rows are written to
+ * the range's own gzip part through a {@link FileChannel} as they arrive. Memory per partition is
+ * the cursor's fetch window plus the write buffers, whatever the size of the table. The parts are gzip members
+ * in ID order, so concatenated they form the single gzip file the download serves. Throughput
+ * across jobs is published as {@code users.export.rows}, {@code users.export.bytes} and the
+ * {@code users.export} timer.
+ */
+@Service
+public class UserExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserExportService.class);
+    private static final String CSV_HEADER = "id,name,email,version\n";
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public String extension() {
+            return name().toLowerCase(Locale.ROOT) + ".gz";
+        }
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ExportProperties exportProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("exportExecutor")
+    private Executor exportExecutor;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final LongAdder exportedRows = new LongAdder();
+    private final LongAdder exportedBytes = new LongAdder();
+    private TransactionTemplate readOnlyTransaction;
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Autowired
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        FunctionCounter.builder("users.export.rows", exportedRows, LongAdder::sum)
+                .description("Users written to export files")
+                .register(meterRegistry);
+        FunctionCounter.builder("users.export.bytes", exportedBytes, LongAdder::sum)
+                .description("Compressed bytes of finished export parts")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("users.export.running", jobs, all -> all.values().stream().filter(Job::isRunning).count())
+                .description("Export jobs in progress")
+                .register(meterRegistry);
+    }
+
+    // Start an export in the background; null while maxRunningJobs are already running
+    public UserExportStatus start(Format format) {
+        purgeExpired();
+        Job job;
+        synchronized (jobs) {
+            if (jobs.values().stream().filter(Job::isRunning).count() >= exportProperties.getMaxRunningJobs()) {
+                return null;
+            }
+            String id = UUID.randomUUID().toString();
+            job = new Job(id, format, exportProperties.getDirectory().resolve(id));
+            jobs.put(id, job);
+        }
+        logger.info("Starting {} export {}", format, job.id);
+        try {
+            // The job is chained rather than awaited, so no executor thread blocks on its partitions
+            CompletableFuture.supplyAsync(() -> plan(job), exportExecutor)
+                    .thenCompose(ranges -> exportPartitions(job, ranges))
+                    .whenComplete((ignored, error) -> finish(job, error));
+        } catch (RejectedExecutionException e) {
+            finish(job, e);
+        }
+        return job.status();
+    }
+
+    // Current progress of a job, null for an unknown or purged one
+    public UserExportStatus status(String id) {
+        Job job = jobs.get(id);
+        return job != null ? job.status() : null;
+    }
+
+    // Copy a complete job's parts, in order, to the target; the channel-to-channel copy avoids a heap buffer
+    public void transferTo(String id, WritableByteChannel target) throws IOException {
+        Job job = jobs.get(id);
+        if (job == null || job.state != State.COMPLETE) {
+            throw new IllegalStateException("Export " + id + " is not complete");
+        }
+        for (int index = 0; index < job.partitions; index++) {
+            try (FileChannel part = FileChannel.open(job.part(index), StandardOpenOption.READ)) {
+                long size = part.size();
+                for (long position = 0; position < size;) {
+                    position += part.transferTo(position, size - position, target);
+                }
+            }
+        }
+    }
+
+    // Create the job directory and split the ID range; runs on the export executor
+    private List<IdRange> plan(Job job) {
+        try {
+            Files.createDirectories(job.directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Long[] bounds = readOnlyTransaction.execute(status -> new Long[] {
+                userRepository.findMinId(), userRepository.findMaxId(), userRepository.count() });
+        job.totalRows = bounds[2];
+        List<IdRange> ranges = new ArrayList<>();
+        if (bounds[0] == null) {
+            ranges.add(new IdRange(1, 0)); // no users: one empty part, which still carries the CSV header
+        } else {
+            long minId = bounds[0];
+            long maxId = bounds[1];
+            long width = (maxId - minId + exportProperties.getPartitions()) / exportProperties.getPartitions();
+            for (long from = minId; from <= maxId; from += width) {
+                ranges.add(new IdRange(from, Math.min(maxId, from + width - 1)));
+            }
+        }
+        job.partitions = ranges.size();
+        return ranges;
+    }
+
+    // Submit every partition; a rejected submission stops the job once the submitted ones have wound down
+    private CompletableFuture<Void> exportPartitions(Job job, List<IdRange> ranges) {
+        List<CompletableFuture<Void>> partitions = new ArrayList<>(ranges.size());
+        RejectedExecutionException rejected = null;
+        for (int i = 0; i < ranges.size(); i++) {
+            int index = i;
+            try {
+                partitions.add(CompletableFuture.runAsync(() -> exportPartition(job, index, ranges.get(index)),
+                        exportExecutor));
+            } catch (RejectedExecutionException e) {
+                job.aborted = true;
+                rejected = e;
+                break;
+            }
+        }
+        CompletableFuture<Void> all = CompletableFuture.allOf(partitions.toArray(CompletableFuture[]::new));
+        if (rejected == null) {
+            return all;
+        }
+        RejectedExecutionException error = rejected;
+        return all.handle((ignored, partitionError) -> {
+            throw new CompletionException(error);
+        });
+    }
+
+    private void exportPartition(Job job, int index, IdRange range) {
+        Path part = job.part(index);
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+                Writer writer = new OutputStreamWriter(gzip(channel), StandardCharsets.UTF_8)) {
+            if (index == 0 && job.format == Format.CSV) {
+                writer.write(CSV_HEADER);
+            }
+            // A short transaction per slice, so the connection is not held, or reported as leaked, for the whole range
+            long step = exportProperties.getIdsPerTransaction();
+            for (long from = range.fromId(); from <= range.toId() && !job.aborted; from += step) {
+                long to = Math.min(range.toId(), from + step - 1);
+                long sliceFrom = from;
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try (Stream<UserView> users = userRepository.streamByIdBetween(sliceFrom, to)) {
+                        Iterator<UserView> rows = users.iterator();
+                        while (rows.hasNext() && !job.aborted) {
+                            write(writer, job.format, rows.next());
+                            job.rows.increment();
+                            exportedRows.increment();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        } catch (IOException e) {
+            job.aborted = true; // the other partitions stop at their next row
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            job.aborted = true;
+            throw e;
+        }
+        try {
+            long bytes = Files.size(part);
+            job.bytes.addAndGet(bytes);
+            exportedBytes.add(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        job.partitionsDone.incrementAndGet();
+    }
+
+    // Fastest deflate level, as for cached values: exports are CPU-bound on compression, not on disk
+    private GZIPOutputStream gzip(FileChannel channel) throws IOException {
+        BufferedOutputStream file = new BufferedOutputStream(Channels.newOutputStream(channel),
+                exportProperties.getBufferSize());
+        return new GZIPOutputStream(file) {
+            {
+                def.setLevel(Deflater.BEST_SPEED);
+            }
+        };
+    }
+
+    private void write(Writer writer, Format format, UserView user) throws IOException {
+        if (format == Format.NDJSON) {
+            writer.write(objectMapper.writeValueAsString(user));
+        } else {
+            writer.write(String.valueOf(user.id()));
+            writer.write(',');
+            writer.write(csv(user.name()));
+            writer.write(',');
+            writer.write(csv(user.email()));
+            writer.write(',');
+            writer.write(user.version() != null ? String.valueOf(user.version()) : "");
+        }
+        writer.write('\n');
+    }
+
+    // RFC 4180: quote fields holding a separator, quote or line break, doubling the quotes
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private void finish(Job job, Throwable error) {
+        job.finishedAt = Instant.now();
+        Duration took = Duration.between(job.startedAt, job.finishedAt);
+        if (error == null) {
+            job.state = State.COMPLETE;
+            logger.info("Export {} complete: {} users, {} bytes in {} parts, {} ms ({} users/s)", job.id,
+                    job.rows.sum(), job.bytes.get(), job.partitions, took.toMillis(), (long) job.rowsPerSecond());
+        } else {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            job.error = cause.getMessage();
+            job.state = State.FAILED;
+            logger.error("Export {} failed after {} users: {}", job.id, job.rows.sum(), cause.getMessage(), cause);
+            delete(job);
+        }
+        Timer.builder("users.export")
+                .description("Export job duration")
+                .tag("outcome", job.state.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry)
+                .record(took);
+    }
+
+    // Drop finished jobs past their retention, with their files
+    private void purgeExpired() {
+        Instant cutoff = Instant.now().minus(exportProperties.getRetention());
+        jobs.values().removeIf(job -> {
+            Instant finishedAt = job.finishedAt;
+            if (finishedAt == null || finishedAt.isAfter(cutoff)) {
+                return false;
+            }
+            delete(job);
+            return true;
+        });
+    }
+
+    private void delete(Job job) {
+        if (!Files.exists(job.directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(job.directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            logger.warn("Error while deleting export files in {}: {}", job.directory, e.getMessage());
+        }
+    }
+
+    private record IdRange(long fromId, long toId) {
+    }
+
+    private static final class Job {
+        private final String id;
+        private final Format format;
+        private final Path directory;
+        private final Instant startedAt = Instant.now();
+        private final LongAdder rows = new LongAdder();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicInteger partitionsDone = new AtomicInteger();
+        private volatile State state = State.RUNNING;
+        private volatile boolean aborted;
+        private volatile int partitions;
+        private volatile long totalRows;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private Job(String id, Format format, Path directory) {
+            this.id = id;
+            this.format = format;
+            this.directory = directory;
+        }
+
+        private Path part(int index) {
+            return directory.resolve(String.format("part-%05d.%s", index, format.extension()));
+        }
+
+        private boolean isRunning() {
+            return state == State.RUNNING;
+        }
+
+        private double rowsPerSecond() {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+            return rows.sum() * 1000.0 / millis;
+        }
+
+        private UserExportStatus status() {
+            return new UserExportStatus(id, format.name(), state, partitions, partitionsDone.get(), rows.sum(),
+                    totalRows, bytes.get(), startedAt, finishedAt, rowsPerSecond(), error);
+        }
+    }
+}
@@ -3,18 +3,55 @@
 
 package com.synchrony.ParallelProcessingApplication.service;
 
-import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.synchrony.ParallelProcessingApplication.cache.CacheRebuildLease;
+import com.synchrony.ParallelProcessingApplication.cache.HotUserSet;
+import com.synchrony.ParallelProcessingApplication.cache.RedisCachePolicy;
+import com.synchrony.ParallelProcessingApplication.cache.SingleFlight;
+import com.synchrony.ParallelProcessingApplication.cache.UserAccessTracker;
+import com.synchrony.ParallelProcessingApplication.cache.UserCacheMetrics;
+import com.synchrony.ParallelProcessingApplication.cache.UserCacheUpdateEvent;
+import com.synchrony.ParallelProcessingApplication.cache.UserNearCache;
+import com.synchrony.ParallelProcessingApplication.dataconfig.CacheProperties;
+import com.synchrony.ParallelProcessingApplication.dataconfig.PrimaryReadPins;
+import com.synchrony.ParallelProcessingApplication.dataconfig.ReadReplicaDataSource.TrackedRead;
+import com.synchrony.ParallelProcessingApplication.model.UserCacheOutbox;
 import com.synchrony.ParallelProcessingApplication.model.UserEntity;
+import com.synchrony.ParallelProcessingApplication.model.UserLookupResult;
+import com.synchrony.ParallelProcessingApplication.model.UserView;
+import com.synchrony.ParallelProcessingApplication.repository.UserCacheOutboxRepository;
 import com.synchrony.ParallelProcessingApplication.repository.UserRepository;
 
-import jakarta.transaction.Transactional;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,23 +63,79 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCacheOutboxRepository outboxRepository;
+
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
 
-    public final String CACHE_KEY_PREFIX = "USER_";
-    public final String CACHE_KEY_ALL_USERS = "ALL_USERS";
+    @Autowired
+    private UserNearCache userNearCache;
+
+    @Autowired
+    private UserCacheMetrics cacheMetrics;
+
+    @Autowired
+    private CacheProperties cacheProperties;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CacheRebuildLease cacheLease;
+
+    @Autowired
+    private RedisCachePolicy cachePolicy;
+
+    @Autowired
+    private UserServiceMetrics metrics;
+
+    @Autowired
+    private HotPathLog hotPathLog;
+
+    @Autowired
+    private PrimaryReadPins primaryReadPins;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private HotUserSet hotUsers;
+
+    @Autowired
+    private UserAccessTracker accessTracker;
+
+    private final SingleFlight<Long, UserEntity> userLoads = new SingleFlight<>();
+    private final SingleFlight<Long, List<UserEntity>> segmentLoads = new SingleFlight<>();
+
+    public static final String CACHE_KEY_PREFIX = "USER_";
+    public static final String CACHE_KEY_SEGMENT_PREFIX = "USERS_SEGMENT_";
+    // Secondary index from a lower-cased email to the user ID
+    public static final String CACHE_KEY_EMAIL_PREFIX = "USERS_EMAIL_";
+
+    // Circuit breakers on the read paths, configured under resilience4j.circuitbreaker.instances
+    public static final String REDIS_BREAKER = "redis";
+    public static final String DATABASE_BREAKER = "database";
 
     // Create or update a user
     @Transactional
+    @Observed(name = "users.service", contextualName = "save-user")
     public UserEntity saveUser(UserEntity user) {
+        // An existing user is updated in place, under the same version check as a PUT (the lookup is
+        // served again from the persistence context); an unknown ID is saved like a new user, as before
+        if (user.getId() != null
+                && metrics.repository("findById", () -> userRepository.findById(user.getId())).isPresent()) {
+            return updateUser(user.getId(), user);
+        }
         try {
             logger.info("Saving user: {}", user);
-            UserEntity savedUser = userRepository.save(user);
+            UserEntity savedUser = metrics.repository("save", () -> userRepository.save(user));
 
-            // Cache the saved user
-            redisTemplate.opsForValue().set(CACHE_KEY_PREFIX + savedUser.getId(), savedUser);
-            invalidateAllUsersCache();
+            // Cache the saved user once the transaction commits
+            recordCacheUpdate(UserCacheUpdateEvent.saved(savedUser));
             return savedUser;
+        } catch (DataIntegrityViolationException e) {
+            throw e; // Email already taken, reported as a conflict
         } catch (Exception e) {
             logger.error("Error while saving user: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to save user");
@@ -51,65 +144,421 @@ public class UserService {
 
     // Get a user by ID
     public UserEntity getUserById(Long id) {
-        String cacheKey = CACHE_KEY_PREFIX + id;
+        hotUsers.record(id);
+        accessTracker.record(id);
         try {
-            // Check Redis cache first
-            UserEntity cachedUser = (UserEntity) redisTemplate.opsForValue().get(cacheKey);
-            if (cachedUser != null) {
-                logger.info("User found in cache for ID: {}", id);
-                return cachedUser;
+            // Check the in-process near cache first
+            UserEntity nearUser = userNearCache.get(id);
+            if (nearUser != null) {
+                return nearUser;
             }
 
-            // Fetch from DB if not cached
-            logger.info("Fetching user from database for ID: {}", id);
-            Optional<UserEntity> user = userRepository.findById(id);
-            user.ifPresent(value -> redisTemplate.opsForValue().set(cacheKey, value)); // Cache the result
-            return user.orElse(null);
+            // Concurrent misses for the same ID share a single load
+            long start = System.nanoTime();
+            UserEntity user;
+            try {
+                user = userLoads.load(id, () -> loadUser(id));
+            } catch (CallNotPermittedException e) {
+                // The database breaker is open; a local copy that was only due for an early refresh still serves
+                UserEntity staleUser = userNearCache.peek(id);
+                if (staleUser == null) {
+                    throw e;
+                }
+                return staleUser;
+            }
+            if (user != null) {
+                userNearCache.put(user, System.nanoTime() - start);
+            }
+            return user;
+        } catch (CallNotPermittedException e) {
+            throw e; // Shed by a breaker, reported as unavailable rather than failed
         } catch (Exception e) {
             logger.error("Error while fetching user by ID: {}", id, e);
             throw new RuntimeException("Failed to fetch user");
         }
     }
 
-    // Get all users
-    public List<UserEntity> getAllUsers() {
+    // Get a user by email: the email key names the ID, which is then read like any other user. The key is only
+    // trusted when that user still has the email, so a stale mapping falls back to the email index in the DB.
+    public UserEntity getUserByEmail(String email) {
+        String emailKey = emailKey(email);
         try {
-            logger.info("Fetching all users");
-            // Check Redis cache
-            List<UserEntity> cachedUsers = (List<UserEntity>) redisTemplate.opsForValue().get(CACHE_KEY_ALL_USERS);
-            if (cachedUsers != null) {
-                logger.info("All users found in cache");
-                return cachedUsers;
+            Long cachedId = cacheRead(() -> (Long) metrics.redisGet("getEmail", () -> redisTemplate.opsForValue().get(emailKey)));
+            if (cachedId != null) {
+                UserEntity user = getUserById(cachedId);
+                if (user != null && email.equalsIgnoreCase(user.getEmail())) {
+                    return user;
+                }
+                cacheWrite(() -> metrics.redis("delete", () -> redisTemplate.delete(emailKey)));
             }
 
+            hotPathLog.log(logger, "Fetching user from database for email key: {}", emailKey);
+            Optional<UserEntity> user = databaseRead(() -> metrics.repository("findViewByEmail",
+                    () -> userRepository.findViewByEmail(email))).map(UserView::toEntity);
+            user.ifPresent(value -> {
+                hotUsers.record(value.getId());
+                cacheWrite(() -> cachePolicy.set(emailKey, value.getId()));
+            });
+            return user.orElse(null);
+        } catch (CallNotPermittedException e) {
+            throw e; // Shed by a breaker, reported as unavailable rather than failed
+        } catch (Exception e) {
+            logger.error("Error while fetching user by email key: {}", emailKey, e);
+            throw new RuntimeException("Failed to fetch user");
+        }
+    }
+
+    // Users whose name starts with a prefix, in name order, straight from the name index
+    public List<UserView> searchUsersByName(String namePrefix, int limit) {
+        // Escape LIKE wildcards so the prefix is matched literally
+        String pattern = namePrefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+        try {
+            return databaseRead(() -> metrics.repository("findViewsByNameLike",
+                    () -> userRepository.findViewsByNameLike(pattern, PageRequest.of(0, limit))));
+        } catch (CallNotPermittedException e) {
+            throw e; // Shed by a breaker, reported as unavailable rather than failed
+        } catch (Exception e) {
+            logger.error("Error while searching users by name: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to search users");
+        }
+    }
+
+    // Emails are unique regardless of case (MySQL's default collation), so their keys are lower-cased
+    public static String emailKey(String email) {
+        return CACHE_KEY_EMAIL_PREFIX + email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Load a user from Redis, or rebuild it from the DB on a miss
+    private UserEntity loadUser(Long id) {
+        String cacheKey = CACHE_KEY_PREFIX + id;
+        UserEntity cachedUser = cacheRead(
+                () -> (UserEntity) metrics.redisGet("get", () -> redisTemplate.opsForValue().get(cacheKey)));
+        if (cachedUser != null) {
+            hotPathLog.log(logger, "User found in cache for ID: {}", id);
+            cacheMetrics.hit(UserCacheMetrics.TIER_L2);
+            return cachedUser;
+        }
+        cacheMetrics.miss(UserCacheMetrics.TIER_L2);
+
+        return rebuild(cacheKey, () -> {
             // Fetch from DB if not cached
-            logger.info("Fetching before all users from database"+LocalDate.now());
-            List<UserEntity> users = userRepository.findAll();
-            redisTemplate.opsForValue().set(CACHE_KEY_ALL_USERS, users); // Cache the result
-            logger.info("Fetching after all users from database"+LocalDate.now());
-            
-            return users;
+            hotPathLog.log(logger, "Fetching user from database for ID: {}", id);
+            TrackedRead<Optional<UserView>> read = databaseRead(() -> metrics.repository("findViewById",
+                    () -> primaryReadPins.read(id, () -> userRepository.findViewById(id))));
+            Optional<UserEntity> user = read.value().map(UserView::toEntity);
+            user.ifPresent(value -> backFill(cacheKey, value, read.fromReplica())); // Cache the result
+            return user.orElse(null);
+        });
+    }
+
+    // Rebuild a missing key; with the rebuild lease enabled only one node queries the DB for it
+    @SuppressWarnings("unchecked")
+    private <T> T rebuild(String cacheKey, Supplier<T> loader) {
+        if (isOpen(REDIS_BREAKER)) {
+            return loader.get(); // No lease to take while Redis is down
+        }
+        try (CacheRebuildLease.Lease lease = cacheLease.acquire(cacheKey)) {
+            if (lease == null) {
+                T rebuilt = (T) cacheLease.awaitRebuild(cacheKey);
+                if (rebuilt != null) {
+                    return rebuilt;
+                }
+                logger.info("Rebuild of {} by another node timed out, loading it here", cacheKey);
+            }
+            return loader.get();
+        }
+    }
+
+    // Get many users by ID with one Redis MGET and one DB query for the misses, in request order
+    public List<UserLookupResult> getUsersByIds(Collection<Long> ids) {
+        ids.forEach(hotUsers::record);
+        return lookupUsers(ids);
+    }
+
+    // Same lookup for the startup warm-up, which must not count its own reads as recent
+    public List<UserLookupResult> preloadUsers(Collection<Long> ids) {
+        return lookupUsers(ids);
+    }
+
+    private List<UserLookupResult> lookupUsers(Collection<Long> ids) {
+        try {
+            Map<Long, UserEntity> found = new HashMap<>();
+            List<Long> remaining = new ArrayList<>();
+            for (Long id : new LinkedHashSet<>(ids)) {
+                UserEntity nearUser = userNearCache.get(id);
+                if (nearUser != null) {
+                    found.put(id, nearUser);
+                } else {
+                    remaining.add(id);
+                }
+            }
+
+            if (!remaining.isEmpty()) {
+                List<String> cacheKeys = new ArrayList<>(remaining.size());
+                remaining.forEach(id -> cacheKeys.add(CACHE_KEY_PREFIX + id));
+                List<Object> cachedUsers = cacheRead(
+                        () -> metrics.redis("mget", () -> redisTemplate.opsForValue().multiGet(cacheKeys)));
+                List<Long> misses = new ArrayList<>();
+                for (int i = 0; i < remaining.size(); i++) {
+                    UserEntity cachedUser = cachedUsers == null ? null : (UserEntity) cachedUsers.get(i);
+                    if (cachedUser != null) {
+                        cacheMetrics.hit(UserCacheMetrics.TIER_L2);
+                        userNearCache.put(cachedUser);
+                        found.put(cachedUser.getId(), cachedUser);
+                    } else {
+                        cacheMetrics.miss(UserCacheMetrics.TIER_L2);
+                        misses.add(remaining.get(i));
+                    }
+                }
+                hotPathLog.log(logger, "Multi-get of {} users: {} cache misses", ids.size(), misses.size());
+
+                if (!misses.isEmpty()) {
+                    List<UserEntity> dbUsers = new ArrayList<>(misses.size());
+                    TrackedRead<List<UserView>> read = databaseRead(() -> metrics.repository("findViewsByIdIn",
+                            () -> primaryReadPins.read(misses, () -> userRepository.findViewsByIdIn(misses))));
+                    read.value().forEach(view -> dbUsers.add(view.toEntity()));
+                    dbUsers.forEach(user -> {
+                        found.put(user.getId(), user);
+                        userNearCache.put(user);
+                    });
+                    cacheUsers(dbUsers, read.fromReplica()); // Back-fill the cache
+                }
+            }
+
+            List<UserLookupResult> results = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                UserEntity user = found.get(id);
+                results.add(new UserLookupResult(id, user != null, user != null ? UserView.of(user) : null));
+            }
+            return results;
+        } catch (CallNotPermittedException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error while fetching users by IDs: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to fetch users");
+        }
+    }
+
+    // Write users read from the database to Redis in a single pipelined round trip
+    private void cacheUsers(Collection<UserEntity> users, boolean fromReplica) {
+        if (users.isEmpty()) {
+            return;
+        }
+        Map<String, UserEntity> entries = new HashMap<>();
+        users.forEach(user -> entries.put(CACHE_KEY_PREFIX + user.getId(), user));
+        if (!fromReplica) {
+            cacheWrite(() -> cachePolicy.setAll(entries));
+        } else if (!primaryReadPins.getReplicaCacheTtl().isZero()) {
+            cacheWrite(() -> cachePolicy.setAll(entries, primaryReadPins.getReplicaCacheTtl()));
+        }
+    }
+
+    // Cache a value read from the database. A replica's copy may predate a write made on another node whose outbox
+    // flush has already replaced or evicted this key (a deleted user would come back), so it only gets a short TTL.
+    private void backFill(String key, Object value, boolean fromReplica) {
+        if (!fromReplica) {
+            cacheWrite(() -> cachePolicy.set(key, value));
+        } else if (!primaryReadPins.getReplicaCacheTtl().isZero()) {
+            cacheWrite(() -> cachePolicy.set(key, value, primaryReadPins.getReplicaCacheTtl()));
+        }
+    }
+
+    // Get one keyset page of users with IDs greater than afterId
+    public List<UserEntity> getAllUsers(Long afterId, int size) {
+        try {
+            long cursor = afterId == null ? 0L : afterId;
+            hotPathLog.log(logger, "Fetching users after ID: {} (page size {})", cursor, size);
+            List<UserEntity> page = new ArrayList<>(size);
+            long segment = segmentOf(cursor + 1);
+            while (page.size() < size) {
+                List<UserEntity> users = getSegment(segment);
+                for (UserEntity user : users) {
+                    if (user.getId() > cursor) {
+                        page.add(user);
+                        if (page.size() == size) {
+                            return page;
+                        }
+                    }
+                }
+                if (!users.isEmpty()) {
+                    segment++;
+                    continue;
+                }
+                // Jump over the empty ID range straight to the segment of the next user
+                long end = segmentEnd(segment);
+                Optional<UserEntity> next = databaseRead(() -> metrics.repository("findFirstByIdGreaterThan",
+                        () -> userRepository.findFirstByIdGreaterThanOrderByIdAsc(end)));
+                if (next.isEmpty()) {
+                    break;
+                }
+                segment = segmentOf(next.get().getId());
+            }
+            return page;
+        } catch (CallNotPermittedException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error while fetching all users: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to fetch all users");
         }
     }
 
+    // Stream every user through the consumer without materializing the table, from a replica when there is one.
+    // Each stream holds a connection for its whole run, so concurrent streams are capped by the usersStream bulkhead.
+    @Bulkhead(name = "usersStream")
+    @Transactional(readOnly = true)
+    @Observed(name = "users.service", contextualName = "stream-all-users")
+    public void streamAllUsers(Consumer<UserView> consumer) {
+        // Views are not managed, so the persistence context stays empty however many rows pass through
+        try (Stream<UserView> users = userRepository.streamAll()) {
+            users.forEach(consumer);
+        }
+    }
+
+    // Load one fixed ID range of users, from Redis when cached
+    private List<UserEntity> getSegment(long segment) {
+        return segmentLoads.load(segment, () -> loadSegment(segment));
+    }
+
+    private List<UserEntity> loadSegment(long segment) {
+        String segmentKey = CACHE_KEY_SEGMENT_PREFIX + segment;
+        List<UserEntity> cachedUsers = cacheRead(() -> asUsers(metrics.redisGet("getSegment",
+                () -> redisTemplate.opsForValue().get(segmentKey))));
+        if (cachedUsers != null) {
+            hotPathLog.log(logger, "Users segment {} found in cache", segment);
+            return cachedUsers;
+        }
+
+        return rebuild(segmentKey, () -> {
+            hotPathLog.log(logger, "Fetching users segment {} from database", segment);
+            long start = segmentStart(segment);
+            long end = segmentEnd(segment);
+            List<UserEntity> users = new ArrayList<>();
+            TrackedRead<List<UserView>> read = databaseRead(() -> metrics.repository("findViewsByIdBetween",
+                    () -> primaryReadPins.readRange(start, end, () -> userRepository.findViewsByIdBetween(start, end))));
+            read.value().forEach(view -> users.add(view.toEntity()));
+            backFill(segmentKey, users, read.fromReplica()); // Cache the result
+            return users;
+        });
+    }
+
+    // Segment keys only ever hold the list of users written by loadSegment
+    @SuppressWarnings("unchecked")
+    private static List<UserEntity> asUsers(Object cachedSegment) {
+        return (List<UserEntity>) cachedSegment;
+    }
+
+    // Redis read behind the redis breaker; a failure or an open breaker reads as a miss, sending the request to the DB
+    private <T> T cacheRead(Supplier<T> read) {
+        try {
+            return circuitBreakerRegistry.circuitBreaker(REDIS_BREAKER).executeSupplier(read);
+        } catch (CallNotPermittedException e) {
+            return null;
+        } catch (Exception e) {
+            logger.warn("Redis read failed, reading from the database: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // Redis write behind the redis breaker; skipped on failure, the value is cached again on a later miss
+    private void cacheWrite(Runnable write) {
+        try {
+            circuitBreakerRegistry.circuitBreaker(REDIS_BREAKER).executeRunnable(write);
+        } catch (CallNotPermittedException e) {
+            // Redis is down; nothing to back-fill into
+        } catch (Exception e) {
+            logger.warn("Redis write failed: {}", e.getMessage());
+        }
+    }
+
+    // Database read behind the database breaker, which fails fast with CallNotPermittedException while open
+    private <T> T databaseRead(Supplier<T> read) {
+        return circuitBreakerRegistry.circuitBreaker(DATABASE_BREAKER).executeSupplier(read);
+    }
+
+    private boolean isOpen(String breaker) {
+        CircuitBreaker.State state = circuitBreakerRegistry.circuitBreaker(breaker).getState();
+        return state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    private long segmentOf(long id) {
+        return id / cacheProperties.getSegmentSize();
+    }
+
+    private long segmentStart(long segment) {
+        return segment * cacheProperties.getSegmentSize();
+    }
+
+    private long segmentEnd(long segment) {
+        return segmentStart(segment + 1) - 1;
+    }
+
     // Update an existing user
     @Transactional
+    @Observed(name = "users.service", contextualName = "update-user")
     public UserEntity updateUser(Long id, UserEntity user) {
-        try {
-            UserEntity existingUser = userRepository.findById(id)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+        return updateUser(id, user, null);
+    }
 
+    // Replace a user's name and email; expectedVersion (an If-Match ETag) must match the stored version when given
+    @Transactional
+    @Observed(name = "users.service", contextualName = "update-user")
+    public UserEntity updateUser(Long id, UserEntity user, Long expectedVersion) {
+        return writeUser(id, user, expectedVersion, existingUser -> {
+            boolean changed = !Objects.equals(existingUser.getName(), user.getName())
+                    || !Objects.equals(existingUser.getEmail(), user.getEmail());
             existingUser.setName(user.getName());
             existingUser.setEmail(user.getEmail());
-            UserEntity updatedUser = userRepository.save(existingUser);
+            return changed;
+        });
+    }
+
+    // Change only the fields the request sets; null fields keep their stored value
+    @Transactional
+    @Observed(name = "users.service", contextualName = "patch-user")
+    public UserEntity patchUser(Long id, UserEntity changes, Long expectedVersion) {
+        return writeUser(id, changes, expectedVersion, existingUser -> {
+            boolean changed = false;
+            if (changes.getName() != null && !changes.getName().equals(existingUser.getName())) {
+                existingUser.setName(changes.getName());
+                changed = true;
+            }
+            if (changes.getEmail() != null && !changes.getEmail().equals(existingUser.getEmail())) {
+                existingUser.setEmail(changes.getEmail());
+                changed = true;
+            }
+            return changed;
+        });
+    }
 
-            // Cache updated user and invalidate all users cache
-            redisTemplate.opsForValue().set(CACHE_KEY_PREFIX + updatedUser.getId(), updatedUser);
-            invalidateAllUsersCache();
+    // Load, check the version, apply; a write that changes nothing skips the UPDATE, the outbox row and the cache refresh
+    private UserEntity writeUser(Long id, UserEntity user, Long expectedVersion, Predicate<UserEntity> apply) {
+        try {
+            UserEntity existingUser = metrics.repository("findById", () -> userRepository.findById(id))
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            if (expectedVersion != null && !expectedVersion.equals(existingUser.getVersion())) {
+                throw new UserVersionMismatchException(id, expectedVersion, existingUser.getVersion());
+            }
+            // A version in the body is the one the client read; a newer stored one means its change would be lost
+            if (user.getVersion() != null && !user.getVersion().equals(existingUser.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(UserEntity.class, id);
+            }
+
+            String previousEmail = existingUser.getEmail();
+            if (!apply.test(existingUser)) {
+                return existingUser;
+            }
+            // Flushed here so a concurrent update fails inside the method and the event carries the new version
+            UserEntity updatedUser = metrics.repository("saveAndFlush", () -> userRepository.saveAndFlush(existingUser));
+
+            // Cache the updated user and invalidate its segment once the transaction commits
+            boolean emailChanged = previousEmail != null && !previousEmail.equals(updatedUser.getEmail());
+            recordCacheUpdate(UserCacheUpdateEvent.saved(updatedUser, emailChanged ? previousEmail : null));
             return updatedUser;
+        } catch (OptimisticLockingFailureException e) {
+            logger.warn("Version conflict while updating user {}: {}", id, e.getMessage());
+            throw e; // Reported as a conflict rather than a failure
+        } catch (DataIntegrityViolationException e) {
+            throw e; // Email already taken, reported as a conflict
         } catch (Exception e) {
             logger.error("Error while updating user: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to update user");
@@ -118,11 +567,14 @@ public class UserService {
 
     // Delete a user
     @Transactional
+    @Observed(name = "users.service", contextualName = "delete-user")
     public void deleteUser(Long id) {
         try {
-            userRepository.deleteById(id);
-            redisTemplate.delete(CACHE_KEY_PREFIX + id); // Remove user from cache
-            invalidateAllUsersCache();
+            // Loaded first (as deleteById would) so the user's email key can be removed with it
+            Optional<UserEntity> user = metrics.repository("findById", () -> userRepository.findById(id));
+            user.ifPresent(existingUser -> metrics.repository("delete", () -> userRepository.delete(existingUser)));
+            // Remove user from cache after commit
+            recordCacheUpdate(UserCacheUpdateEvent.deleted(id, user.map(UserEntity::getEmail).orElse(null)));
             logger.info("User deleted with ID: {}", id);
         } catch (Exception e) {
             logger.error("Error while deleting user: {}", e.getMessage(), e);
@@ -130,14 +582,32 @@ public class UserService {
         }
     }
 
-    // Invalidate all users cache
-    private void invalidateAllUsersCache() {
+    // Queue a cache change in the caller's transaction; the outbox row commits or rolls back with the write
+    public void recordCacheUpdate(UserCacheUpdateEvent event) {
+        recordCacheUpdates(List.of(event));
+    }
+
+    public void recordCacheUpdates(List<UserCacheUpdateEvent> events) {
+        List<UserCacheOutbox> rows = new ArrayList<>(events.size());
+        events.forEach(event -> rows.add(new UserCacheOutbox(event.id(), event.previousEmail())));
+        metrics.repository("saveOutbox", () -> outboxRepository.saveAll(rows));
+        events.forEach(eventPublisher::publishEvent);
+    }
+
+    // Invalidate every cached segment touched by a batch of users with a single UNLINK
+    public void invalidateSegmentCaches(Collection<Long> ids) {
+        Set<String> segmentKeys = new HashSet<>();
+        for (Long id : ids) {
+            segmentKeys.add(CACHE_KEY_SEGMENT_PREFIX + segmentOf(id));
+        }
+        if (segmentKeys.isEmpty()) {
+            return;
+        }
         try {
-            redisTemplate.delete(CACHE_KEY_ALL_USERS);
-            logger.info("All users cache invalidated");
+            metrics.redis("unlink", () -> redisTemplate.unlink(segmentKeys));
+            hotPathLog.log(logger, "{} users segment caches invalidated", segmentKeys.size());
         } catch (Exception e) {
-            logger.error("Error while invalidating all users cache: {}", e.getMessage(), e);
+            logger.error("Error while invalidating users segment caches: {}", e.getMessage(), e);
         }
     }
 }
-
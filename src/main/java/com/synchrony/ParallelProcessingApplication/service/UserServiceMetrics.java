@@ -0,0 +1,88 @@
+package com.synchrony.ParallelProcessingApplication.service;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Latency of each Redis and repository hop made for user requests, published as the
+ * {@code users.redis} and {@code users.repository} timers with {@code operation} and
+ * {@code outcome} (hit, miss, success or error) tags and percentile histograms.
+ */
+@Component
+public class UserServiceMetrics {
+
+    public static final String HIT = "hit";
+    public static final String MISS = "miss";
+    public static final String SUCCESS = "success";
+    public static final String ERROR = "error";
+
+    private static final String REDIS = "users.redis";
+    private static final String REPOSITORY = "users.repository";
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public UserServiceMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Redis read; a null value is a miss
+    public <T> T redisGet(String operation, Supplier<T> call) {
+        return time(REDIS, operation, call, value -> value != null ? HIT : MISS);
+    }
+
+    public <T> T redis(String operation, Supplier<T> call) {
+        return time(REDIS, operation, call, value -> SUCCESS);
+    }
+
+    public void redis(String operation, Runnable call) {
+        time(REDIS, operation, () -> {
+            call.run();
+            return null;
+        }, value -> SUCCESS);
+    }
+
+    // Repository call; an empty Optional is a miss
+    public <T> T repository(String operation, Supplier<T> call) {
+        return time(REPOSITORY, operation, call,
+                value -> value instanceof Optional<?> optional && optional.isEmpty() ? MISS
+                        : value instanceof Optional<?> ? HIT : SUCCESS);
+    }
+
+    public void repository(String operation, Runnable call) {
+        time(REPOSITORY, operation, () -> {
+            call.run();
+            return null;
+        }, value -> SUCCESS);
+    }
+
+    private <T> T time(String hop, String operation, Supplier<T> call, Function<T, String> outcome) {
+        long start = System.nanoTime();
+        try {
+            T value = call.get();
+            record(hop, operation, outcome.apply(value), start);
+            return value;
+        } catch (RuntimeException e) {
+            record(hop, operation, ERROR, start);
+            throw e;
+        }
+    }
+
+    private void record(String hop, String operation, String outcome, long start) {
+        timers.computeIfAbsent(hop + ':' + operation + ':' + outcome, key -> Timer.builder(hop)
+                .description(REDIS.equals(hop) ? "Redis calls made for user requests" : "Repository calls made for user requests")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry))
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
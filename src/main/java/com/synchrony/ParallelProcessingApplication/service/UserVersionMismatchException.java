@@ -0,0 +1,23 @@
+package com.synchrony.ParallelProcessingApplication.service;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+/**
+ * Thrown when a write names the version it expects (an {@code If-Match} ETag) and the stored user
+ * is at another one. Carries the current version so the caller can send it back.
+ */
+public class UserVersionMismatchException extends OptimisticLockingFailureException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long currentVersion;
+
+    public UserVersionMismatchException(Long id, Long expectedVersion, Long currentVersion) {
+        super("User " + id + " is at version " + currentVersion + ", not " + expectedVersion);
+        this.currentVersion = currentVersion;
+    }
+
+    public Long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -0,0 +1,97 @@
+package com.synchrony.ParallelProcessingApplication;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.synchrony.ParallelProcessingApplication.dataconfig.AdaptiveThreadPoolExecutor;
+import com.synchrony.ParallelProcessingApplication.dataconfig.ExecutorProperties.Pool;
+import com.synchrony.ParallelProcessingApplication.dataconfig.ExecutorProperties.RejectionPolicy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AdaptiveThreadPoolExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private AdaptiveThreadPoolExecutor executor;
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        release.countDown();
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private AdaptiveThreadPoolExecutor executor(int coreSize, int maxSize, int queueCapacity, RejectionPolicy rejection) {
+        Pool pool = new Pool(coreSize, maxSize, queueCapacity, rejection);
+        pool.setAdaptive(false); // adjust() is driven by the test
+        pool.setMaxWait(Duration.ofMillis(50));
+        return new AdaptiveThreadPoolExecutor("test", pool, meterRegistry);
+    }
+
+    private void blockOneThread() {
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    private double rejections(String outcome) {
+        return meterRegistry.get("executor.rejections").tag("name", "test").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    public void testCallerRunsWhenSaturated() {
+        executor = executor(1, 1, 1, RejectionPolicy.CALLER_RUNS);
+        blockOneThread();
+        executor.execute(() -> { }); // fills the queue
+
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        executor.execute(() -> ranOn.set(Thread.currentThread()));
+
+        assertEquals(Thread.currentThread(), ranOn.get());
+        assertEquals(1.0, rejections("caller_runs"));
+    }
+
+    @Test
+    public void testBoundedWaitRejectsAfterMaxWait() {
+        executor = executor(1, 1, 1, RejectionPolicy.BOUNDED_WAIT);
+        blockOneThread();
+        executor.execute(() -> { });
+
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        assertEquals(1.0, rejections("rejected"));
+    }
+
+    @Test
+    public void testAdjustGrowsWithBacklogAndShrinksWhenIdle() throws InterruptedException {
+        executor = executor(1, 4, 100, RejectionPolicy.ABORT);
+        blockOneThread();
+        for (int i = 0; i < 10; i++) {
+            executor.execute(() -> { });
+        }
+
+        // Nothing has finished yet and work is queued, so one more thread
+        assertEquals(2, executor.adjust());
+        assertEquals(2, executor.getCorePoolSize());
+
+        release.countDown();
+        while (executor.getCompletedTaskCount() < 11) {
+            Thread.sleep(5);
+        }
+        // No new arrivals: back to the configured core size
+        assertEquals(1, executor.adjust());
+        assertEquals(11, meterRegistry.get("executor.queue.wait").tag("name", "test").timer().count());
+    }
+}
@@ -0,0 +1,156 @@
+package com.synchrony.ParallelProcessingApplication;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.synchrony.ParallelProcessingApplication.cache.UserCacheUpdateEvent;
+import com.synchrony.ParallelProcessingApplication.dataconfig.BulkProperties;
+import com.synchrony.ParallelProcessingApplication.model.BulkUserResult;
+import com.synchrony.ParallelProcessingApplication.model.BulkUserResult.Status;
+import com.synchrony.ParallelProcessingApplication.model.BulkUserSummary;
+import com.synchrony.ParallelProcessingApplication.model.BulkUserUpdate;
+import com.synchrony.ParallelProcessingApplication.model.UserEntity;
+import com.synchrony.ParallelProcessingApplication.model.UserView;
+import com.synchrony.ParallelProcessingApplication.repository.UserRepository;
+import com.synchrony.ParallelProcessingApplication.service.BulkUserService;
+import com.synchrony.ParallelProcessingApplication.service.UserService;
+
+@ExtendWith(MockitoExtension.class)
+public class BulkUserServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private BulkProperties bulkProperties = new BulkProperties();
+
+    @Spy
+    private CallerRunsExecutor dbExecutor = new CallerRunsExecutor();
+
+    @InjectMocks
+    private BulkUserService bulkUserService;
+
+    static class CallerRunsExecutor implements Executor {
+        @Override
+        public void execute(Runnable task) {
+            task.run();
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        bulkProperties.setChunkSize(2);
+        bulkUserService.setTransactionManager(transactionManager);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    private static UserView user(long id, String name) {
+        return new UserView(id, name, "user" + id + "@example.com", 3L);
+    }
+
+    @Test
+    public void testSaveUsers_UnknownIdIsSavedAsNew() {
+        UserEntity existing = new UserEntity(1L, "Old", "user1@example.com", 3L);
+        UserEntity known = new UserEntity(1L, "New", "user1@example.com");
+        UserEntity unknown = new UserEntity(7L, "Created", "user7@example.com");
+        UserEntity created = new UserEntity(8L, "Created", "user7@example.com", 0L);
+        when(userRepository.findAllById(Set.of(1L, 7L))).thenReturn(List.of(existing));
+        when(userRepository.saveAll(List.of(unknown, existing))).thenReturn(List.of(created, existing));
+
+        List<BulkUserResult> results = bulkUserService.saveUsers(List.of(unknown, known));
+
+        assertEquals(List.of(new BulkUserResult(0, 8L, Status.CREATED, null),
+                new BulkUserResult(1, 1L, Status.UPDATED, null)), results);
+        assertEquals("New", existing.getName());
+        verify(userService).recordCacheUpdates(
+                List.of(UserCacheUpdateEvent.saved(created, null), UserCacheUpdateEvent.saved(existing, null)));
+    }
+
+    @Test
+    public void testDeleteUsers_OneStatementPerChunk() {
+        when(userRepository.findViewsByIdIn(List.of(1L, 2L))).thenReturn(List.of(user(1, "A"), user(2, "B")));
+        when(userRepository.findViewsByIdIn(List.of(3L))).thenReturn(List.of());
+        when(userRepository.deleteByIdIn(List.of(1L, 2L))).thenReturn(2);
+
+        BulkUserSummary summary = bulkUserService.deleteUsers(List.of(1L, 2L, 1L, 3L));
+
+        assertEquals(new BulkUserSummary(3, 2, 0, 1, 0, 0), summary);
+        verify(userRepository, times(1)).deleteByIdIn(any());
+        verify(userService).recordCacheUpdates(List.of(UserCacheUpdateEvent.deleted(1L, "user1@example.com"),
+                UserCacheUpdateEvent.deleted(2L, "user2@example.com")));
+    }
+
+    @Test
+    public void testUpdateUsers_SkipsUnchangedRows() {
+        when(userRepository.findViewsByIdIn(List.of(1L, 2L))).thenReturn(List.of(user(1, "Same"), user(2, "Old")));
+        when(userRepository.updateNameByIdInAndVersion(List.of(2L), "Same", 3L)).thenReturn(1);
+
+        BulkUserSummary summary = bulkUserService.updateUsers(new BulkUserUpdate(List.of(1L, 2L), "Same", null));
+
+        assertEquals(new BulkUserSummary(2, 1, 1, 0, 0, 0), summary);
+        verify(userService).recordCacheUpdates(
+                List.of(UserCacheUpdateEvent.saved(new UserEntity(2L, "Same", "user2@example.com", 4L))));
+    }
+
+    @Test
+    public void testUpdateUsers_FailedChunkIsCounted() {
+        when(userRepository.findViewsByIdIn(List.of(1L, 2L))).thenReturn(List.of(user(1, "Old"), user(2, "Old")));
+        when(userRepository.updateNameByIdInAndVersion(List.of(1L, 2L), "New", 3L)).thenThrow(new CannotAcquireLockException("Deadlock"));
+        when(userRepository.findViewsByIdIn(List.of(3L))).thenReturn(List.of(user(3, "Old")));
+        when(userRepository.updateNameByIdInAndVersion(List.of(3L), "New", 3L)).thenReturn(1);
+
+        BulkUserSummary summary = bulkUserService.updateUsers(new BulkUserUpdate(List.of(1L, 2L, 3L), "New", null));
+
+        assertEquals(new BulkUserSummary(3, 1, 0, 0, 2, 0), summary);
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    @Test
+    public void testUpdateUsers_StaleVersionsAreConflicts() {
+        when(userRepository.findViewsByIdIn(List.of(1L, 2L))).thenReturn(List.of(user(1, "Old"), user(2, "Old")));
+        when(userRepository.updateNameByIdInAndVersion(List.of(2L), "New", 3L)).thenReturn(1);
+
+        BulkUserSummary summary = bulkUserService.updateUsers(
+                new BulkUserUpdate(List.of(1L, 2L), "New", Map.of(1L, 2L, 2L, 3L)));
+
+        assertEquals(new BulkUserSummary(2, 1, 0, 0, 0, 1), summary);
+        verify(userRepository, never()).updateNameByIdInAndVersion(eq(List.of(1L)), any(), any());
+    }
+
+    @Test
+    public void testUpdateUsers_ConcurrentWriteRollsBackTheChunk() {
+        when(userRepository.findViewsByIdIn(List.of(1L, 2L))).thenReturn(List.of(user(1, "Old"), user(2, "Old")));
+        // Another writer bumped user 2 between the SELECT and the UPDATE
+        when(userRepository.updateNameByIdInAndVersion(List.of(1L, 2L), "New", 3L)).thenReturn(1);
+
+        BulkUserSummary summary = bulkUserService.updateUsers(new BulkUserUpdate(List.of(1L, 2L), "New", null));
+
+        assertEquals(new BulkUserSummary(2, 0, 0, 0, 2, 0), summary);
+        verify(transactionManager, times(1)).rollback(any());
+        verify(userService, never()).recordCacheUpdates(any());
+    }
+}
@@ -0,0 +1,82 @@
+package com.synchrony.ParallelProcessingApplication;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.synchrony.ParallelProcessingApplication.dataconfig.ExecutorProperties;
+import com.synchrony.ParallelProcessingApplication.dataconfig.PoolSizingCheck;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+
+public class PoolSizingCheckTest {
+
+    private final ExecutorProperties executorProperties = new ExecutorProperties();
+    private final HikariDataSource primaryDataSource = new HikariDataSource(); // never started: no connections
+    private final MockEnvironment environment = new MockEnvironment();
+    // The usersList and usersStream limits from application.properties: 8 + 2 connections
+    private final ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry = ThreadPoolBulkheadRegistry.of(
+            ThreadPoolBulkheadConfig.custom().coreThreadPoolSize(4).maxThreadPoolSize(8).build());
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom().maxConcurrentCalls(2).build());
+
+    @AfterEach
+    public void tearDown() {
+        primaryDataSource.close();
+    }
+
+    private List<String> check() {
+        return new PoolSizingCheck(executorProperties, primaryDataSource, bulkheadRegistry, threadPoolBulkheadRegistry,
+                environment).check();
+    }
+
+    @Test
+    public void testDefaultsFitThePropertiesPoolSize() {
+        primaryDataSource.setMaximumPoolSize(34); // spring.datasource.hikari.maximum-pool-size
+
+        assertEquals(List.of(), check());
+    }
+
+    @Test
+    public void testEveryConnectionHolderCounts() {
+        // dbExecutor alone fits; with the export pool and both bulkheads it does not
+        primaryDataSource.setMaximumPoolSize(executorProperties.getDb().getMaxSize());
+
+        List<String> mismatches = check();
+
+        assertEquals(1, mismatches.size());
+        assertTrue(mismatches.get(0).startsWith("Up to 34 tasks hold a database connection at once (dbExecutor 20,"
+                + " exportExecutor 4, usersList bulkhead 8, usersStream bulkhead 2) but the database pool has 20 connections"));
+    }
+
+    @Test
+    public void testUnsetPoolSizeIsHikarisDefault() {
+        List<String> mismatches = check();
+
+        assertEquals(1, mismatches.size());
+        assertTrue(mismatches.get(0).contains("the database pool has 10 connections"));
+    }
+
+    @Test
+    public void testVirtualThreadsAreBoundedByTheConcurrencyLimit() {
+        environment.setProperty("spring.threads.virtual.enabled", "true");
+        primaryDataSource.setMaximumPoolSize(34);
+        executorProperties.setVirtualConcurrencyLimit(30);
+
+        List<String> mismatches = check();
+
+        if (Runtime.version().feature() >= 21) {
+            assertEquals(1, mismatches.size());
+            assertTrue(mismatches.get(0).contains("dbExecutor 30"));
+        } else {
+            assertEquals(List.of(), mismatches); // platform pools: db max-size 20 fits
+        }
+    }
+}
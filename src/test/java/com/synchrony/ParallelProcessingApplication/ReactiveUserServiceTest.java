@@ -0,0 +1,193 @@
+package com.synchrony.ParallelProcessingApplication;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+
+import com.synchrony.ParallelProcessingApplication.cache.UserCacheMetrics;
+import com.synchrony.ParallelProcessingApplication.cache.UserRedisSerializer;
+import com.synchrony.ParallelProcessingApplication.dataconfig.CacheProperties;
+import com.synchrony.ParallelProcessingApplication.model.UserEntity;
+import com.synchrony.ParallelProcessingApplication.reactive.ReactiveUserRepository;
+import com.synchrony.ParallelProcessingApplication.reactive.ReactiveUserService;
+import com.synchrony.ParallelProcessingApplication.service.UserVersionMismatchException;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveUserServiceTest {
+
+    @Mock
+    private ReactiveUserRepository userRepository;
+
+    @Mock
+    private ReactiveRedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, Object> valueOperations;
+
+    @Mock
+    private ReactiveStringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private UserCacheMetrics cacheMetrics;
+
+    @Spy
+    private UserRedisSerializer userRedisSerializer = new UserRedisSerializer(true, 1024);
+
+    @Spy
+    private CacheProperties cacheProperties = new CacheProperties();
+
+    @InjectMocks
+    private ReactiveUserService userService;
+
+    @BeforeEach
+    public void setUp() {
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    public void testGetUserById_FromCache() {
+        UserEntity cachedUser = new UserEntity(1L, "Cached User", "cached.user@example.com");
+        when(valueOperations.get("USER_1")).thenReturn(Mono.just(cachedUser));
+
+        UserEntity result = userService.getUserById(1L).block();
+
+        assertEquals(cachedUser, result);
+        verify(cacheMetrics).hit(UserCacheMetrics.TIER_L2);
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    public void testGetUserById_FromDatabaseIsCachedWithTtl() {
+        UserEntity dbUser = new UserEntity(2L, "DB User", "db.user@example.com");
+        when(valueOperations.get("USER_2")).thenReturn(Mono.empty());
+        when(userRepository.findById(2L)).thenReturn(Mono.just(dbUser));
+        when(valueOperations.set(eq("USER_2"), eq(dbUser), any(Duration.class))).thenReturn(Mono.just(true));
+
+        UserEntity result = userService.getUserById(2L).block();
+
+        assertEquals(dbUser, result);
+        verify(cacheMetrics).miss(UserCacheMetrics.TIER_L2);
+        ArgumentCaptor<Duration> ttl = ArgumentCaptor.forClass(Duration.class);
+        verify(valueOperations).set(eq("USER_2"), eq(dbUser), ttl.capture());
+        // Default user TTL of one hour with 10% jitter
+        assertTrue(ttl.getValue().compareTo(Duration.ofMinutes(54)) >= 0);
+        assertTrue(ttl.getValue().compareTo(Duration.ofMinutes(66)) <= 0);
+    }
+
+    @Test
+    public void testGetUserById_NotFound() {
+        when(valueOperations.get("USER_3")).thenReturn(Mono.empty());
+        when(userRepository.findById(3L)).thenReturn(Mono.empty());
+
+        assertNull(userService.getUserById(3L).block());
+        verify(valueOperations, never()).set(anyString(), any(), any(Duration.class));
+    }
+
+    @Test
+    public void testGetUserById_ConcurrentMissesLoadOnce() {
+        UserEntity dbUser = new UserEntity(4L, "DB User", "db.user@example.com");
+        Sinks.One<UserEntity> pendingQuery = Sinks.one();
+        when(valueOperations.get("USER_4")).thenReturn(Mono.empty());
+        when(userRepository.findById(4L)).thenReturn(pendingQuery.asMono());
+        when(valueOperations.set(eq("USER_4"), eq(dbUser), any(Duration.class))).thenReturn(Mono.just(true));
+
+        // Both subscribe while the query is still running
+        CompletableFuture<UserEntity> first = userService.getUserById(4L).toFuture();
+        CompletableFuture<UserEntity> second = userService.getUserById(4L).toFuture();
+        assertFalse(first.isDone());
+        pendingQuery.tryEmitValue(dbUser);
+
+        assertEquals(dbUser, first.join());
+        assertEquals(dbUser, second.join());
+        verify(valueOperations, times(1)).get("USER_4");
+        verify(userRepository, times(1)).findById(4L);
+    }
+
+    @Test
+    public void testUpdateUser_RefreshesCacheAndInvalidates() {
+        UserEntity updatedUser = new UserEntity(5L, "Updated", "updated@example.com");
+        when(userRepository.findById(5L)).thenReturn(Mono.just(new UserEntity(5L, "Old", "Old@example.com")));
+        when(userRepository.update(5L, updatedUser, null)).thenReturn(Mono.just(updatedUser));
+        when(valueOperations.set(eq("USER_5"), eq(updatedUser), any(Duration.class))).thenReturn(Mono.just(true));
+        when(redisTemplate.delete("USERS_SEGMENT_0", "USERS_EMAIL_old@example.com", "USERS_EMAIL_updated@example.com"))
+                .thenReturn(Mono.just(3L));
+        when(stringRedisTemplate.convertAndSend("USER_INVALIDATION", "5")).thenReturn(Mono.just(1L));
+
+        UserEntity result = userService.updateUser(5L, updatedUser, null).block();
+
+        assertEquals(updatedUser, result);
+        // The segment and both email keys are dropped, as the write-behind path does
+        verify(redisTemplate).delete("USERS_SEGMENT_0", "USERS_EMAIL_old@example.com", "USERS_EMAIL_updated@example.com");
+        verify(stringRedisTemplate).convertAndSend("USER_INVALIDATION", "5");
+    }
+
+    @Test
+    public void testUpdateUser_NotFound() {
+        UserEntity user = new UserEntity(6L, "Missing", "missing@example.com");
+        when(userRepository.update(6L, user, null)).thenReturn(Mono.empty());
+        when(userRepository.findById(6L)).thenReturn(Mono.empty());
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> userService.updateUser(6L, user, null).block());
+        assertEquals("Failed to update user", e.getMessage());
+        verify(valueOperations, never()).set(anyString(), any(), any(Duration.class));
+    }
+
+    @Test
+    public void testUpdateUser_StaleVersionIsAConflict() {
+        UserEntity user = new UserEntity(7L, "Stale", "stale@example.com", 1L);
+        when(userRepository.update(7L, user, 3L)).thenReturn(Mono.empty());
+        when(userRepository.findById(7L)).thenReturn(Mono.just(new UserEntity(7L, "Current", "current@example.com", 4L)));
+
+        UserVersionMismatchException e = assertThrows(UserVersionMismatchException.class,
+                () -> userService.updateUser(7L, user, 3L).block());
+        assertEquals(4L, e.getCurrentVersion());
+        verify(valueOperations, never()).set(anyString(), any(), any(Duration.class));
+        verify(stringRedisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    public void testDeleteUser_DropsItsEmailKey() {
+        when(userRepository.findById(8L)).thenReturn(Mono.just(new UserEntity(8L, "Gone", "gone@example.com")));
+        when(userRepository.deleteById(8L)).thenReturn(Mono.just(1L));
+        when(redisTemplate.delete("USER_8")).thenReturn(Mono.just(1L));
+        when(redisTemplate.delete("USERS_SEGMENT_0", "USERS_EMAIL_gone@example.com")).thenReturn(Mono.just(2L));
+        when(stringRedisTemplate.convertAndSend("USER_INVALIDATION", "8")).thenReturn(Mono.just(1L));
+
+        userService.deleteUser(8L).block();
+
+        verify(redisTemplate).delete("USERS_SEGMENT_0", "USERS_EMAIL_gone@example.com");
+        verify(stringRedisTemplate).convertAndSend("USER_INVALIDATION", "8");
+    }
+
+    @Test
+    public void testGetAllUsers_PagesAcrossCachedSegments() {
+        UserEntity first = new UserEntity(498L, "A", "a@example.com");
+        UserEntity second = new UserEntity(499L, "B", "b@example.com");
+        UserEntity third = new UserEntity(500L, "C", "c@example.com");
+        when(valueOperations.get("USERS_SEGMENT_0")).thenReturn(Mono.just(List.of(first, second)));
+        when(valueOperations.get("USERS_SEGMENT_1")).thenReturn(Mono.just(List.of(third)));
+
+        List<UserEntity> page = userService.getAllUsers(498L, 2).block();
+
+        assertEquals(List.of(second, third), page);
+        verify(userRepository, never()).findByIdBetween(anyLong(), anyLong());
+    }
+}
@@ -0,0 +1,122 @@
+package com.synchrony.ParallelProcessingApplication;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.synchrony.ParallelProcessingApplication.cache.UserCacheUpdateEvent;
+import com.synchrony.ParallelProcessingApplication.dataconfig.PrimaryReadPins;
+import com.synchrony.ParallelProcessingApplication.dataconfig.ReadReplicaDataSource;
+import com.synchrony.ParallelProcessingApplication.dataconfig.ReadReplicaDataSource.TrackedRead;
+import com.synchrony.ParallelProcessingApplication.dataconfig.ReplicaProperties;
+import com.synchrony.ParallelProcessingApplication.model.UserEntity;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ReadReplicaDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ReadReplicaDataSource readReplicaDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        readReplicaDataSource.destroy();
+    }
+
+    // An in-memory database that answers "which node am I"
+    private static DataSource node(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table if not exists node (name varchar(20))");
+        jdbc.execute("delete from node");
+        jdbc.update("insert into node values (?)", name);
+        return dataSource;
+    }
+
+    private static DataSource unreachable() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+        return dataSource;
+    }
+
+    private void route(DataSource primary, List<DataSource> replicas) {
+        readReplicaDataSource = new ReadReplicaDataSource(primary, replicas, Duration.ZERO, meterRegistry);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(readReplicaDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+    }
+
+    private String node(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+    }
+
+    @Test
+    public void testReadOnlyTransactionsGoToReplicas() {
+        route(node("primary"), List.of(node("replica1"), node("replica2")));
+
+        assertEquals("primary", node(readWrite));
+        assertEquals("replica1", node(readOnly));
+        assertEquals("replica2", node(readOnly));
+        assertEquals("replica1", node(readOnly));
+        assertEquals(2.0, meterRegistry.get("datasource.reads").tag("target", "replica-0").counter().count());
+    }
+
+    @Test
+    public void testUnreachableReplicaIsTakenOutOfRotation() {
+        route(node("primary"), List.of(unreachable(), node("replica")));
+
+        assertEquals("replica", node(readOnly));
+        assertEquals("replica", node(readOnly));
+        assertEquals(0.0, meterRegistry.get("datasource.replica.healthy").tag("replica", "replica-0").gauge().value());
+
+        readReplicaDataSource.checkHealth();
+        assertEquals(0.0, meterRegistry.get("datasource.replica.healthy").tag("replica", "replica-0").gauge().value());
+        assertEquals(1.0, meterRegistry.get("datasource.replica.healthy").tag("replica", "replica-1").gauge().value());
+    }
+
+    @Test
+    public void testNoHealthyReplicaFallsBackToPrimary() {
+        route(node("primary"), List.of(unreachable()));
+
+        assertEquals("primary", node(readOnly));
+        assertEquals(1.0, meterRegistry.get("datasource.reads").tag("target", "primary").counter().count());
+    }
+
+    @Test
+    public void testPinnedUserIsReadFromPrimary() {
+        route(node("primary"), List.of(node("replica")));
+        PrimaryReadPins pins = new PrimaryReadPins(new ReplicaProperties());
+        pins.onUserCacheUpdate(UserCacheUpdateEvent.saved(new UserEntity(5L, "Written", "written@example.com")));
+
+        assertEquals(new TrackedRead<>("primary", false), pins.read(5L, () -> node(readOnly)));
+        assertEquals(new TrackedRead<>("primary", false), pins.readRange(0, 499, () -> node(readOnly)));
+        assertEquals(new TrackedRead<>("replica", true), pins.read(6L, () -> node(readOnly)));
+        assertEquals(new TrackedRead<>("replica", true), pins.read(List.of(6L, 7L), () -> node(readOnly)));
+    }
+
+    @Test
+    public void testReadsOutsideReplicaRotationAreNotFromReplica() {
+        route(node("primary"), List.of(unreachable()));
+
+        assertEquals(new TrackedRead<>("primary", false), ReadReplicaDataSource.tracked(() -> node(readOnly)));
+        assertEquals(new TrackedRead<>("primary", false), ReadReplicaDataSource.tracked(() -> node(readWrite)));
+    }
+}
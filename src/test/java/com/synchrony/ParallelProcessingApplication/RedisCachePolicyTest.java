@@ -0,0 +1,137 @@
+package com.synchrony.ParallelProcessingApplication;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.Cursor.CursorId;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanCursor;
+import org.springframework.data.redis.core.ScanIteration;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import com.synchrony.ParallelProcessingApplication.cache.RedisCachePolicy;
+import com.synchrony.ParallelProcessingApplication.cache.UserRedisSerializer;
+import com.synchrony.ParallelProcessingApplication.dataconfig.CacheProperties;
+import com.synchrony.ParallelProcessingApplication.model.UserEntity;
+import com.synchrony.ParallelProcessingApplication.service.UserServiceMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class RedisCachePolicyTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private RedisConnection connection;
+
+    @Mock
+    private RedisStringCommands stringCommands;
+
+    @Mock
+    private RedisKeyCommands keyCommands;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RedisCachePolicy cachePolicy;
+
+    @BeforeEach
+    public void setUp() {
+        CacheProperties cacheProperties = new CacheProperties();
+        cacheProperties.getPolicy().getUser().setTtl(Duration.ofSeconds(100));
+        cacheProperties.getPolicy().getSegment().setMaxPayloadBytes(64);
+        cachePolicy = new RedisCachePolicy(redisTemplate, cacheProperties, new UserServiceMetrics(meterRegistry), meterRegistry);
+
+        lenient().doReturn(new StringRedisSerializer()).when(redisTemplate).getKeySerializer();
+        lenient().doReturn(new UserRedisSerializer(true, 1024)).when(redisTemplate).getValueSerializer();
+        lenient().when(connection.stringCommands()).thenReturn(stringCommands);
+        lenient().when(connection.keyCommands()).thenReturn(keyCommands);
+    }
+
+    @Test
+    public void testUserIsWrittenWithJitteredTtl() {
+        ArgumentCaptor<Expiration> expiration = ArgumentCaptor.forClass(Expiration.class);
+
+        for (int i = 0; i < 20; i++) {
+            cachePolicy.set(connection, "USER_1", new UserEntity(1L, "User", "user@example.com"));
+        }
+
+        verify(stringCommands, times(20)).set(eq(bytes("USER_1")), any(byte[].class), expiration.capture(),
+                eq(SetOption.upsert()));
+        for (Expiration ttl : expiration.getAllValues()) {
+            long millis = ttl.getExpirationTimeInMilliseconds();
+            assertTrue(millis >= 90_000 && millis <= 110_000, "TTL out of jitter range: " + millis);
+        }
+        assertTrue(expiration.getAllValues().stream().map(Expiration::getExpirationTimeInMilliseconds).distinct().count() > 1);
+        assertEquals(20.0, meterRegistry.get("users.cache.writes").tag("family", "user").counter().count());
+    }
+
+    @Test
+    public void testOversizedValueIsDeletedInsteadOfCached() {
+        List<UserEntity> segment = List.of(
+                new UserEntity(1L, "First User", "first@example.com"),
+                new UserEntity(2L, "Second User", "second@example.com"),
+                new UserEntity(3L, "Third User", "third@example.com"));
+
+        cachePolicy.set(connection, "USERS_SEGMENT_0", segment);
+
+        verify(keyCommands, times(1)).del(bytes("USERS_SEGMENT_0"));
+        verifyNoInteractions(stringCommands);
+        assertEquals(1.0, meterRegistry.get("users.cache.writes.skipped").tag("family", "segment").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testKeyCountSkipsKeysOfOtherSerializers() {
+        JdkSerializationRedisSerializer jdkKeys = new JdkSerializationRedisSerializer();
+        doReturn(jdkKeys).when(redisTemplate).getKeySerializer();
+        when(redisTemplate.execute(any(RedisCallback.class)))
+                .thenAnswer(invocation -> ((RedisCallback<Object>) invocation.getArgument(0)).doInRedis(connection));
+        // SCAN matches the plain-string lease of a user key as well as the user keys themselves
+        when(keyCommands.scan(any(ScanOptions.class))).thenAnswer(invocation -> cursor(
+                jdkKeys.serialize("USER_1"), jdkKeys.serialize("USER_2"), bytes("LOCK_USER_3"),
+                jdkKeys.serialize("USERS_SEGMENT_0")));
+
+        cachePolicy.countKeys();
+
+        assertEquals(2.0, meterRegistry.get("users.cache.keys").tag("family", "user").gauge().value());
+        assertEquals(1.0, meterRegistry.get("users.cache.keys").tag("family", "segment").gauge().value());
+    }
+
+    @Test
+    public void testUnknownKeyFamilyIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> cachePolicy.set(connection, "OTHER_1", "value"));
+    }
+
+    private static Cursor<byte[]> cursor(byte[]... keys) {
+        return new ScanCursor<byte[]>(ScanOptions.NONE) {
+            @Override
+            protected ScanIteration<byte[]> doScan(CursorId cursorId, ScanOptions options) {
+                return new ScanIteration<>(CursorId.initial(), List.of(keys));
+            }
+        }.open();
+    }
+
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,107 @@
+package com.synchrony.ParallelProcessingApplication;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.synchrony.ParallelProcessingApplication.cache.HotKeysEndpoint;
+import com.synchrony.ParallelProcessingApplication.cache.UserAccessTracker;
+import com.synchrony.ParallelProcessingApplication.dataconfig.CacheProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class UserAccessTrackerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private UserAccessTracker tracker(int topK) {
+        CacheProperties cacheProperties = new CacheProperties();
+        cacheProperties.getHotKeys().setTopK(topK);
+        return new UserAccessTracker(cacheProperties, meterRegistry);
+    }
+
+    @Test
+    public void testHeavyHittersStandOutFromALongTail() {
+        UserAccessTracker tracker = tracker(10);
+        // IDs 1-10 read 200 to 300 times each, interleaved with 20,000 IDs read once
+        for (int round = 0; round < 300; round++) {
+            for (long id = 1; id <= 10; id++) {
+                if (round < 200 + id * 10) {
+                    tracker.record(id);
+                }
+            }
+            for (long id = 0; id < 66; id++) {
+                tracker.record(1_000 + round * 66L + id);
+            }
+        }
+        tracker.refresh();
+
+        List<UserAccessTracker.HeavyHitter> heavyHitters = tracker.heavyHitters();
+        assertEquals(10, heavyHitters.size());
+        assertEquals(10L, heavyHitters.get(0).id());
+        assertEquals("USER_10", heavyHitters.get(0).key());
+        for (long id = 1; id <= 10; id++) {
+            assertTrue(tracker.isHeavyHitter(id));
+            assertTrue(tracker.estimate(id) >= 200 + id * 10); // a count-min sketch never under-counts
+        }
+        assertFalse(tracker.isHeavyHitter(1_000L));
+        assertEquals(10L, new HotKeysEndpoint(tracker).hotKeys().heavyHitters().get(0).id());
+    }
+
+    @Test
+    public void testConcurrentReadsOfOneKeyAreAllCounted() throws Exception {
+        UserAccessTracker tracker = tracker(10);
+        int threads = 8;
+        int reads = 50_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> {
+                    for (int read = 0; read < reads; read++) {
+                        tracker.record(42L);
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals((long) threads * reads, tracker.estimate(42L));
+        assertEquals((double) threads * reads, meterRegistry.get("users.access.reads").functionCounter().count());
+    }
+
+    @Test
+    public void testDecayHalvesCounts() {
+        UserAccessTracker tracker = tracker(10);
+        for (int read = 0; read < 100; read++) {
+            tracker.record(7L);
+        }
+
+        tracker.decay();
+        tracker.refresh();
+
+        assertEquals(50, tracker.estimate(7L));
+        assertEquals(50, tracker.heavyHitters().get(0).estimate());
+    }
+
+    @Test
+    public void testSampleRateMustBeAFraction() {
+        CacheProperties.HotKeys hotKeys = new CacheProperties().getHotKeys();
+        assertThrows(IllegalArgumentException.class, () -> hotKeys.setSampleRate(0));
+        assertThrows(IllegalArgumentException.class, () -> hotKeys.setSampleRate(-0.5));
+        assertThrows(IllegalArgumentException.class, () -> hotKeys.setSampleRate(1.5));
+        hotKeys.setSampleRate(0.25);
+        assertEquals(0.25, hotKeys.getSampleRate());
+    }
+}
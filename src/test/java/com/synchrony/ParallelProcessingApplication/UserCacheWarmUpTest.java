@@ -0,0 +1,126 @@
+package com.synchrony.ParallelProcessingApplication;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import com.synchrony.ParallelProcessingApplication.cache.HotUserSet;
+import com.synchrony.ParallelProcessingApplication.cache.UserCacheWarmUp;
+import com.synchrony.ParallelProcessingApplication.dataconfig.CacheProperties;
+import com.synchrony.ParallelProcessingApplication.model.UserLookupResult;
+import com.synchrony.ParallelProcessingApplication.model.UserView;
+import com.synchrony.ParallelProcessingApplication.service.UserService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class UserCacheWarmUpTest {
+
+    @Mock
+    private HotUserSet hotUsers;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CacheProperties cacheProperties = new CacheProperties();
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private UserCacheWarmUp warmUp(int chunkSize, Duration timeBudget) {
+        cacheProperties.getWarmUp().setChunkSize(chunkSize);
+        cacheProperties.getWarmUp().setTimeBudget(timeBudget);
+        return new UserCacheWarmUp(hotUsers, userService, executor, cacheProperties, meterRegistry);
+    }
+
+    // Users with odd IDs still exist
+    private static List<UserLookupResult> lookup(Collection<Long> ids) {
+        List<UserLookupResult> results = new ArrayList<>();
+        for (Long id : ids) {
+            boolean found = id % 2 == 1;
+            results.add(new UserLookupResult(id, found, found ? new UserView(id, "User " + id, id + "@example.com", 0L) : null));
+        }
+        return results;
+    }
+
+    @Test
+    public void testWarmUpPreloadsHotSetInChunks() {
+        when(hotUsers.topIds(10_000)).thenReturn(List.of(1L, 2L, 3L, 4L, 5L));
+        when(userService.preloadUsers(anyCollection())).thenAnswer(invocation -> lookup(invocation.getArgument(0)));
+
+        assertEquals("complete", warmUp(2, Duration.ofSeconds(10)).warmUp());
+
+        verify(userService, times(3)).preloadUsers(anyCollection());
+        verify(userService, never()).getUsersByIds(anyCollection());
+        assertEquals(3.0, meterRegistry.get("users.cache.warmup.users").tag("outcome", "cached").counter().count());
+        assertEquals(2.0, meterRegistry.get("users.cache.warmup.users").tag("outcome", "missing").counter().count());
+        assertEquals(0.0, meterRegistry.get("users.cache.warmup.remaining").gauge().value());
+    }
+
+    @Test
+    public void testWarmUpStopsAtTimeBudget() {
+        when(hotUsers.topIds(10_000)).thenReturn(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L));
+        when(userService.preloadUsers(anyCollection())).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return lookup(invocation.getArgument(0));
+        });
+
+        assertEquals("budget_exceeded", warmUp(1, Duration.ofMillis(100)).warmUp());
+
+        assertTrue(meterRegistry.get("users.cache.warmup.remaining").gauge().value() > 0);
+        assertEquals(1, meterRegistry.get("users.cache.warmup").tag("outcome", "budget_exceeded").timer().count());
+    }
+
+    @Test
+    public void testWarmUpStopsWhenLookupFails() {
+        when(hotUsers.topIds(10_000)).thenReturn(List.of(1L, 2L, 3L, 4L, 5L, 6L));
+        when(userService.preloadUsers(anyCollection())).thenThrow(new RuntimeException("Failed to fetch users"));
+
+        assertEquals("failed", warmUp(1, Duration.ofSeconds(10)).warmUp());
+
+        // Each worker gives up after its first failed chunk
+        verify(userService, atMost(2)).preloadUsers(anyCollection());
+    }
+
+    @Test
+    public void testHotSetFlushesRecordedIdsAndTrims() {
+        when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        cacheProperties.getWarmUp().setHotSetSize(100);
+        HotUserSet hotUserSet = new HotUserSet(stringRedisTemplate, cacheProperties);
+
+        hotUserSet.record(7L);
+        hotUserSet.record(7L);
+        hotUserSet.record(9L);
+        hotUserSet.flush();
+        hotUserSet.flush();
+
+        verify(zSetOperations, times(1)).add(eq(HotUserSet.KEY),
+                argThat((Set<ZSetOperations.TypedTuple<String>> members) -> members.size() == 2));
+        verify(zSetOperations, times(1)).removeRange(HotUserSet.KEY, 0, -101);
+    }
+}
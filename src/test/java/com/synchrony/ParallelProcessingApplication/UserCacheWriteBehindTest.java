@@ -0,0 +1,134 @@
+package com.synchrony.ParallelProcessingApplication;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.synchrony.ParallelProcessingApplication.cache.UserCacheUpdateEvent;
+import com.synchrony.ParallelProcessingApplication.cache.UserCacheWriteBehind;
+import com.synchrony.ParallelProcessingApplication.cache.UserNearCache;
+import com.synchrony.ParallelProcessingApplication.dataconfig.CacheProperties;
+import com.synchrony.ParallelProcessingApplication.model.UserCacheOutbox;
+import com.synchrony.ParallelProcessingApplication.model.UserEntity;
+import com.synchrony.ParallelProcessingApplication.repository.UserCacheOutboxRepository;
+import com.synchrony.ParallelProcessingApplication.repository.UserRepository;
+import com.synchrony.ParallelProcessingApplication.service.ThreadService;
+import com.synchrony.ParallelProcessingApplication.service.UserService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class UserCacheWriteBehindTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ThreadService threadService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserCacheOutboxRepository outboxRepository;
+
+    @Mock
+    private UserNearCache userNearCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private UserCacheWriteBehind writeBehind;
+
+    @BeforeEach
+    public void setUp() {
+        writeBehind = new UserCacheWriteBehind(redisTemplate, threadService, userService, userRepository,
+                outboxRepository, userNearCache, transactionManager, new CacheProperties(), meterRegistry);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    private static UserCacheOutbox row(long id, long userId) {
+        return row(id, userId, null);
+    }
+
+    private static UserCacheOutbox row(long id, long userId, String previousEmail) {
+        UserCacheOutbox row = new UserCacheOutbox(userId, previousEmail);
+        row.setId(id);
+        row.setCreatedAt(Instant.now().minusMillis(100));
+        return row;
+    }
+
+    @Test
+    public void testFlushWritesCurrentUsersAndRemovesRows() {
+        UserEntity latest = new UserEntity(1L, "Latest", "latest@example.com");
+        List<UserCacheOutbox> rows = List.of(row(10, 1L), row(11, 1L), row(12, 2L, "gone@example.com"));
+        when(outboxRepository.lockOldest(any(Pageable.class))).thenReturn(rows);
+        when(userRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(latest)); // user 2 was deleted
+
+        assertEquals(3, writeBehind.flush());
+
+        Map<Long, UserEntity> expected = new HashMap<>();
+        expected.put(1L, latest);
+        expected.put(2L, null);
+        verify(threadService).writeCache(expected, Set.of("gone@example.com"), redisTemplate);
+        verify(userService).invalidateSegmentCaches(Set.of(1L, 2L));
+        verify(outboxRepository).deleteAllInBatch(rows);
+        verify(userNearCache).evictEverywhere(Set.of(1L, 2L));
+        verify(transactionManager).commit(any());
+        assertEquals(2.0, meterRegistry.get("users.cache.writebehind.flushed").counter().count());
+        assertEquals(1.0, meterRegistry.get("users.cache.writebehind.coalesced").counter().count());
+        assertEquals(3, meterRegistry.get("users.cache.writebehind.lag").timer().count());
+    }
+
+    @Test
+    public void testFailedRedisWriteLeavesRowsForRetry() {
+        List<UserCacheOutbox> rows = List.of(row(10, 1L));
+        when(outboxRepository.lockOldest(any(Pageable.class))).thenReturn(rows);
+        when(userRepository.findAllById(Set.of(1L))).thenReturn(new ArrayList<>());
+        doThrow(new RedisConnectionFailureException("down")).when(threadService).writeCache(anyMap(), anyCollection(), eq(redisTemplate));
+
+        assertThrows(RedisConnectionFailureException.class, () -> writeBehind.flush());
+
+        verify(outboxRepository, never()).deleteAllInBatch(anyList());
+        verify(transactionManager).rollback(any());
+        verify(userNearCache, never()).evictEverywhere(anyCollection());
+    }
+
+    @Test
+    public void testEmptyOutboxDoesNothing() {
+        when(outboxRepository.lockOldest(any(Pageable.class))).thenReturn(List.of());
+
+        assertEquals(0, writeBehind.flush());
+
+        verifyNoInteractions(threadService, userRepository, userNearCache);
+    }
+
+    @Test
+    public void testCommitInvalidatesLocalNearCache() {
+        writeBehind.onUserCacheUpdate(UserCacheUpdateEvent.deleted(7L));
+
+        verify(userNearCache, times(1)).invalidate(7L);
+    }
+}
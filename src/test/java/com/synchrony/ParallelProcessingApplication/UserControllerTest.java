@@ -1,13 +1,25 @@
 package com.synchrony.ParallelProcessingApplication;
 
 import com.synchrony.ParallelProcessingApplication.controller.UserController;
+import com.synchrony.ParallelProcessingApplication.model.BulkUserResult;
+import com.synchrony.ParallelProcessingApplication.model.BulkUserSummary;
+import com.synchrony.ParallelProcessingApplication.model.BulkUserUpdate;
 import com.synchrony.ParallelProcessingApplication.model.UserEntity;
+import com.synchrony.ParallelProcessingApplication.model.UserLookupResult;
+import com.synchrony.ParallelProcessingApplication.model.UserView;
+import com.synchrony.ParallelProcessingApplication.service.BulkUserService;
 import com.synchrony.ParallelProcessingApplication.service.UserService;
+import com.synchrony.ParallelProcessingApplication.service.UserVersionMismatchException;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 
 import java.util.Arrays;
 import java.util.List;
@@ -22,6 +34,9 @@ class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private BulkUserService bulkUserService;
+
     @InjectMocks
     private UserController userController;
 
@@ -49,6 +64,23 @@ class UserControllerTest {
         verify(userService, times(1)).saveUser(user);
     }
 
+    @Test
+    void testSaveUser_WithIdIsAnUpsert() {
+        // Arrange: an ID that does not exist is saved as a new user rather than reported missing
+        UserEntity user = new UserEntity(7L, "John Doe", "john@example.com");
+        UserEntity savedUser = new UserEntity(8L, "John Doe", "john@example.com", 0L);
+
+        when(userService.saveUser(user)).thenReturn(savedUser);
+
+        // Act
+        ResponseEntity<UserEntity> response = userController.saveUser(user);
+
+        // Assert
+        assertEquals(OK, response.getStatusCode());
+        assertEquals(savedUser, response.getBody());
+        verify(userService, never()).updateUser(anyLong(), any(UserEntity.class));
+    }
+
     @Test
     void testSaveUser_InternalServerError() {
         // Arrange
@@ -68,6 +100,46 @@ class UserControllerTest {
         verify(userService, times(1)).saveUser(user);
     }
 
+    @Test
+    void testSaveUsers_ReturnsResultPerRecord() {
+        // Arrange
+        List<UserEntity> users = Arrays.asList(new UserEntity(null, "John Doe", "john@example.com"),
+                new UserEntity(5L, "Jane Doe", "jane@example.com"));
+        List<BulkUserResult> results = Arrays.asList(
+                new BulkUserResult(0, 10L, BulkUserResult.Status.CREATED, null),
+                new BulkUserResult(1, 5L, BulkUserResult.Status.UPDATED, null));
+
+        when(bulkUserService.saveUsers(users)).thenReturn(results);
+
+        // Act
+        ResponseEntity<List<BulkUserResult>> response = userController.saveUsers(users);
+
+        // Assert
+        assertEquals(OK, response.getStatusCode());
+        assertEquals(results, response.getBody());
+        verify(bulkUserService, times(1)).saveUsers(users);
+    }
+
+    @Test
+    void testDeleteUsers_ReturnsSummary() {
+        List<Long> ids = Arrays.asList(1L, 2L, 3L);
+        BulkUserSummary summary = new BulkUserSummary(3, 2, 0, 1, 0, 0);
+        when(bulkUserService.deleteUsers(ids)).thenReturn(summary);
+
+        ResponseEntity<BulkUserSummary> response = userController.deleteUsers(ids);
+
+        assertEquals(OK, response.getStatusCode());
+        assertEquals(summary, response.getBody());
+    }
+
+    @Test
+    void testUpdateUsers_RequiresIdsAndName() {
+        ResponseEntity<BulkUserSummary> response = userController.updateUsers(new BulkUserUpdate(List.of(1L), null, null));
+
+        assertEquals(BAD_REQUEST, response.getStatusCode());
+        verify(bulkUserService, never()).updateUsers(any());
+    }
+
     @Test
     void testGetUserById_Success() {
         // Arrange
@@ -75,17 +147,19 @@ class UserControllerTest {
         UserEntity user = new UserEntity();
         user.setId(userId);
         user.setName("Jane Doe");
+        user.setVersion(3L);
 
         when(userService.getUserById(userId)).thenReturn(user);
 
         // Act
-        ResponseEntity<UserEntity> response = userController.getUserById(userId);
+        ResponseEntity<UserView> response = userController.getUserById(userId);
 
         // Assert
         assertNotNull(response);
         assertEquals(OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals("Jane Doe", response.getBody().getName());
+        assertEquals("Jane Doe", response.getBody().name());
+        assertEquals("\"3\"", response.getHeaders().getETag());
         verify(userService, times(1)).getUserById(userId);
     }
 
@@ -97,7 +171,7 @@ class UserControllerTest {
         when(userService.getUserById(userId)).thenReturn(null);
 
         // Act
-        ResponseEntity<UserEntity> response = userController.getUserById(userId);
+        ResponseEntity<UserView> response = userController.getUserById(userId);
 
         // Assert
         assertNotNull(response);
@@ -105,6 +179,50 @@ class UserControllerTest {
         verify(userService, times(1)).getUserById(userId);
     }
 
+    @Test
+    void testGetUserByEmail() {
+        UserEntity user = new UserEntity(1L, "Jane Doe", "jane@example.com", 2L);
+        when(userService.getUserByEmail("jane@example.com")).thenReturn(user);
+
+        ResponseEntity<UserView> response = userController.getUserByEmail("jane@example.com");
+
+        assertEquals(OK, response.getStatusCode());
+        assertEquals(UserView.of(user), response.getBody());
+        assertEquals("\"2\"", response.getHeaders().getETag());
+        assertEquals(NOT_FOUND, userController.getUserByEmail("nobody@example.com").getStatusCode());
+    }
+
+    @Test
+    void testSearchUsers_CapsThePageSize() {
+        List<UserView> users = List.of(new UserView(1L, "Jane Doe", "jane@example.com", 0L));
+        when(userService.searchUsersByName("Ja", 1000)).thenReturn(users);
+
+        ResponseEntity<List<UserView>> response = userController.searchUsers("Ja", 5000);
+
+        assertEquals(OK, response.getStatusCode());
+        assertEquals(users, response.getBody());
+        assertEquals(BAD_REQUEST, userController.searchUsers("", 10).getStatusCode());
+    }
+
+    @Test
+    void testGetUsersByIds_Success() {
+        // Arrange
+        List<Long> ids = Arrays.asList(1L, 2L);
+        List<UserLookupResult> results = Arrays.asList(
+                new UserLookupResult(1L, true, new UserView(1L, "John Doe", "john@example.com", 0L)),
+                new UserLookupResult(2L, false, null));
+
+        when(userService.getUsersByIds(ids)).thenReturn(results);
+
+        // Act
+        ResponseEntity<List<UserLookupResult>> response = userController.getUsersByIds(ids);
+
+        // Assert
+        assertEquals(OK, response.getStatusCode());
+        assertEquals(results, response.getBody());
+        verify(userService, times(1)).getUsersByIds(ids);
+    }
+
     @Test
     void testGetAllUsers_Success() {
         // Arrange
@@ -115,32 +233,73 @@ class UserControllerTest {
 
         List<UserEntity> users = Arrays.asList(user1, user2);
 
-        when(userService.getAllUsers()).thenReturn(users);
+        when(userService.getAllUsers(0L, 100)).thenReturn(users);
 
         // Act
-        ResponseEntity<List<UserEntity>> response = userController.getAllUsers();
+        ResponseEntity<List<UserView>> response = userController.getAllUsers(0L, 100).join();
 
         // Assert
         assertNotNull(response);
         assertEquals(OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(2, response.getBody().size());
-        verify(userService, times(1)).getAllUsers();
+        assertEquals(List.of(new UserView(null, "John Doe", null, null), new UserView(null, "Jane Doe", null, null)), response.getBody());
+        assertNull(response.getHeaders().getFirst(UserController.NEXT_AFTER_ID_HEADER));
+        verify(userService, times(1)).getAllUsers(0L, 100);
+    }
+
+    @Test
+    void testGetAllUsers_FullPageReturnsNextCursor() {
+        // Arrange
+        UserEntity user1 = new UserEntity(1L, "John Doe", "john@example.com");
+        UserEntity user2 = new UserEntity(7L, "Jane Doe", "jane@example.com");
+
+        when(userService.getAllUsers(0L, 2)).thenReturn(Arrays.asList(user1, user2));
+
+        // Act
+        ResponseEntity<List<UserView>> response = userController.getAllUsers(0L, 2).join();
+
+        // Assert
+        assertEquals(OK, response.getStatusCode());
+        assertEquals("7", response.getHeaders().getFirst(UserController.NEXT_AFTER_ID_HEADER));
+    }
+
+    @Test
+    void testGetAllUsers_InvalidPageSize() {
+        // Act
+        ResponseEntity<List<UserView>> response = userController.getAllUsers(0L, 0).join();
+
+        // Assert
+        assertEquals(BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(userService);
     }
 
     @Test
     void testGetAllUsers_InternalServerError() {
         // Arrange
-        when(userService.getAllUsers()).thenThrow(new RuntimeException("Database error"));
+        when(userService.getAllUsers(0L, 100)).thenThrow(new RuntimeException("Database error"));
 
         // Act
-        ResponseEntity<List<UserEntity>> response = userController.getAllUsers();
+        ResponseEntity<List<UserView>> response = userController.getAllUsers(0L, 100).join();
 
         // Assert
         assertNotNull(response);
         assertEquals(INTERNAL_SERVER_ERROR, response.getStatusCode());
         assertNull(response.getBody());
-        verify(userService, times(1)).getAllUsers();
+        verify(userService, times(1)).getAllUsers(0L, 100);
+    }
+
+    @Test
+    void testGetAllUsers_DatabaseBreakerOpen() {
+        // Arrange
+        when(userService.getAllUsers(0L, 100)).thenThrow(
+                CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("database")));
+
+        // Act
+        ResponseEntity<List<UserView>> response = userController.getAllUsers(0L, 100).join();
+
+        // Assert
+        assertEquals(SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
     }
 
     @Test
@@ -151,17 +310,59 @@ class UserControllerTest {
         user.setName("Updated Name");
         user.setEmail("updated@example.com");
 
-        when(userService.updateUser(eq(userId), any(UserEntity.class))).thenReturn(user);
+        user.setVersion(2L);
+
+        when(userService.updateUser(eq(userId), any(UserEntity.class), eq(1L))).thenReturn(user);
 
         // Act
-        ResponseEntity<UserEntity> response = userController.updateUser(userId, user);
+        ResponseEntity<UserEntity> response = userController.updateUser(userId, user, "\"1\"");
 
         // Assert
         assertNotNull(response);
         assertEquals(OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals("Updated Name", response.getBody().getName());
-        verify(userService, times(1)).updateUser(eq(userId), any(UserEntity.class));
+        assertEquals("\"2\"", response.getHeaders().getETag());
+        verify(userService, times(1)).updateUser(eq(userId), any(UserEntity.class), eq(1L));
+    }
+
+    @Test
+    void testUpdateUser_StaleIfMatch() {
+        Long userId = 1L;
+        UserEntity user = new UserEntity();
+        user.setName("Updated Name");
+
+        when(userService.updateUser(eq(userId), any(UserEntity.class), eq(1L)))
+                .thenThrow(new UserVersionMismatchException(userId, 1L, 4L));
+
+        ResponseEntity<UserEntity> response = userController.updateUser(userId, user, "\"1\"");
+
+        assertEquals(PRECONDITION_FAILED, response.getStatusCode());
+        assertEquals("\"4\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void testPatchUser_ConcurrentUpdateConflicts() {
+        Long userId = 1L;
+        UserEntity changes = new UserEntity();
+        changes.setEmail("new@example.com");
+
+        when(userService.patchUser(eq(userId), any(UserEntity.class), isNull()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(UserEntity.class, userId));
+
+        ResponseEntity<UserEntity> response = userController.patchUser(userId, changes, null);
+
+        assertEquals(CONFLICT, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void testIfMatchParsing() {
+        assertNull(UserController.versionOf(null));
+        assertNull(UserController.versionOf("*"));
+        assertEquals(7L, UserController.versionOf("\"7\""));
+        assertEquals(-1L, UserController.versionOf("W/\"7\""));
+        assertEquals(-1L, UserController.versionOf("\"abc\""));
     }
 
     @Test
@@ -171,16 +372,16 @@ class UserControllerTest {
         UserEntity user = new UserEntity();
         user.setName("Updated Name");
 
-        when(userService.updateUser(eq(userId), any(UserEntity.class))).thenThrow(new RuntimeException("User not found"));
+        when(userService.updateUser(eq(userId), any(UserEntity.class), isNull())).thenThrow(new RuntimeException("User not found"));
 
         // Act
-        ResponseEntity<UserEntity> response = userController.updateUser(userId, user);
+        ResponseEntity<UserEntity> response = userController.updateUser(userId, user, null);
 
         // Assert
         assertNotNull(response);
         assertEquals(NOT_FOUND, response.getStatusCode());
         assertNull(response.getBody());
-        verify(userService, times(1)).updateUser(eq(userId), any(UserEntity.class));
+        verify(userService, times(1)).updateUser(eq(userId), any(UserEntity.class), isNull());
     }
 
     @Test
@@ -0,0 +1,242 @@
+package com.synchrony.ParallelProcessingApplication;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.synchrony.ParallelProcessingApplication.dataconfig.ExportProperties;
+import com.synchrony.ParallelProcessingApplication.model.UserExportStatus;
+import com.synchrony.ParallelProcessingApplication.model.UserView;
+import com.synchrony.ParallelProcessingApplication.repository.UserRepository;
+import com.synchrony.ParallelProcessingApplication.service.UserExportService;
+import com.synchrony.ParallelProcessingApplication.service.UserExportService.Format;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class UserExportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ExportProperties exportProperties = new ExportProperties();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private ManualExecutor exportExecutor = new ManualExecutor();
+
+    @InjectMocks
+    private UserExportService exportService;
+
+    @TempDir
+    private Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    public void setUp() {
+        exportProperties.setDirectory(directory);
+        exportService.setTransactionManager(transactionManager);
+        exportService.setMeterRegistry(meterRegistry);
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    // Runs tasks inline, or holds them until runAll() while paused
+    static class ManualExecutor implements Executor {
+        private final Deque<Runnable> tasks = new ArrayDeque<>();
+        private boolean paused;
+
+        @Override
+        public void execute(Runnable task) {
+            if (paused) {
+                tasks.add(task);
+            } else {
+                task.run();
+            }
+        }
+
+        void runAll() {
+            paused = false;
+            while (!tasks.isEmpty()) {
+                tasks.poll().run();
+            }
+        }
+    }
+
+    // Users 1..10 except 5, so one partition is short
+    private void givenUsers() {
+        when(userRepository.findMinId()).thenReturn(1L);
+        when(userRepository.findMaxId()).thenReturn(10L);
+        when(userRepository.count()).thenReturn(9L);
+        when(userRepository.streamByIdBetween(any(), any())).thenAnswer(invocation -> {
+            long from = invocation.getArgument(0);
+            long to = invocation.getArgument(1);
+            return LongStream.rangeClosed(from, to).filter(id -> id != 5).mapToObj(UserExportServiceTest::user);
+        });
+    }
+
+    private static UserView user(long id) {
+        String name = id == 2 ? "Doe, \"Jane\"" : "User " + id;
+        return new UserView(id, name, "user" + id + "@example.com", 0L);
+    }
+
+    private String download(String id) throws IOException {
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        exportService.transferTo(id, Channels.newChannel(file));
+        // GZIPInputStream reads on across concatenated members
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(file.toByteArray()))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testCsvExportWritesPartitionsInIdOrder() throws IOException {
+        givenUsers();
+
+        UserExportStatus status = exportService.start(Format.CSV);
+
+        UserExportStatus done = exportService.status(status.id());
+        assertEquals(UserExportStatus.State.COMPLETE, done.state());
+        assertEquals(4, done.partitions()); // [1-3] [4-6] [7-9] [10-10]
+        assertEquals(4, done.partitionsDone());
+        assertEquals(9, done.rows());
+        assertEquals(9, done.totalRows());
+        assertNotNull(done.finishedAt());
+        verify(userRepository).streamByIdBetween(1L, 3L);
+        verify(userRepository).streamByIdBetween(10L, 10L);
+
+        String[] lines = download(status.id()).split("\n");
+        assertEquals(10, lines.length);
+        assertEquals("id,name,email,version", lines[0]);
+        assertEquals("1,User 1,user1@example.com,0", lines[1]);
+        assertEquals("2,\"Doe, \"\"Jane\"\"\",user2@example.com,0", lines[2]);
+        assertEquals("6,User 6,user6@example.com,0", lines[5]);
+        assertEquals("10,User 10,user10@example.com,0", lines[9]);
+
+        long bytes = Files.size(directory.resolve(status.id()).resolve("part-00000.csv.gz"));
+        assertTrue(done.bytes() > bytes);
+        assertEquals(9.0, meterRegistry.get("users.export.rows").functionCounter().count());
+        assertEquals(1, meterRegistry.get("users.export").tag("outcome", "complete").timer().count());
+    }
+
+    @Test
+    public void testNdjsonExportWritesOneObjectPerLine() throws IOException {
+        givenUsers();
+
+        UserExportStatus status = exportService.start(Format.NDJSON);
+
+        List<String> lines = download(status.id()).lines().toList();
+        assertEquals(9, lines.size());
+        UserView first = objectMapper.readValue(lines.get(0), UserView.class);
+        assertEquals(user(1), first);
+        assertEquals(user(10), objectMapper.readValue(lines.get(8), UserView.class));
+    }
+
+    @Test
+    public void testEmptyTableExportsHeaderOnly() throws IOException {
+        when(userRepository.findMinId()).thenReturn(null);
+        when(userRepository.findMaxId()).thenReturn(null);
+        when(userRepository.count()).thenReturn(0L);
+
+        UserExportStatus status = exportService.start(Format.CSV);
+
+        assertEquals(UserExportStatus.State.COMPLETE, exportService.status(status.id()).state());
+        assertEquals("id,name,email,version\n", download(status.id()));
+        verify(userRepository, never()).streamByIdBetween(any(), any());
+    }
+
+    @Test
+    public void testStartIsRefusedAtMaxRunningJobs() throws IOException {
+        givenUsers();
+        exportProperties.setMaxRunningJobs(1);
+        exportExecutor.paused = true;
+
+        UserExportStatus running = exportService.start(Format.CSV);
+
+        assertEquals(UserExportStatus.State.RUNNING, running.state());
+        assertNull(exportService.start(Format.CSV));
+        assertThrows(IllegalStateException.class, () -> download(running.id()));
+
+        exportExecutor.runAll();
+
+        assertEquals(UserExportStatus.State.COMPLETE, exportService.status(running.id()).state());
+        assertNotNull(exportService.start(Format.CSV));
+    }
+
+    @Test
+    public void testFailedPartitionFailsJobAndDeletesItsFiles() {
+        givenUsers();
+        when(userRepository.streamByIdBetween(eq(7L), eq(9L))).thenThrow(new RuntimeException("Connection reset"));
+
+        UserExportStatus status = exportService.start(Format.CSV);
+
+        UserExportStatus failed = exportService.status(status.id());
+        assertEquals(UserExportStatus.State.FAILED, failed.state());
+        assertEquals("Connection reset", failed.error());
+        assertFalse(Files.exists(directory.resolve(status.id())));
+        assertThrows(IllegalStateException.class, () -> download(status.id()));
+        assertEquals(1, meterRegistry.get("users.export").tag("outcome", "failed").timer().count());
+    }
+
+    @Test
+    public void testPartitionsAreReadInShortTransactions() throws IOException {
+        givenUsers();
+        exportProperties.setIdsPerTransaction(2);
+
+        UserExportStatus status = exportService.start(Format.CSV);
+
+        assertEquals(9, exportService.status(status.id()).rows());
+        // [1-3] [4-6] [7-9] [10-10], two IDs per transaction
+        verify(userRepository).streamByIdBetween(1L, 2L);
+        verify(userRepository).streamByIdBetween(3L, 3L);
+        verify(userRepository).streamByIdBetween(10L, 10L);
+        verify(userRepository, times(7)).streamByIdBetween(any(), any());
+        verify(transactionManager, times(8)).getTransaction(any()); // the plan's and one per slice
+        assertEquals(10, download(status.id()).split("\n").length);
+    }
+
+    @Test
+    public void testPartitionsMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> exportProperties.setPartitions(0));
+        assertThrows(IllegalArgumentException.class, () -> exportProperties.setIdsPerTransaction(0));
+    }
+
+    @Test
+    public void testUnknownJobHasNoStatus() {
+        assertNull(exportService.status("missing"));
+    }
+}
@@ -0,0 +1,83 @@
+package com.synchrony.ParallelProcessingApplication;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import com.synchrony.ParallelProcessingApplication.cache.UserRedisSerializer;
+import com.synchrony.ParallelProcessingApplication.model.UserEntity;
+
+class UserRedisSerializerTest {
+
+    private final UserRedisSerializer serializer = new UserRedisSerializer(true, 1024);
+    private final JdkSerializationRedisSerializer jdkSerializer = new JdkSerializationRedisSerializer();
+
+    @Test
+    void testUser_RoundTripsAndIsSmallerThanJdk() {
+        UserEntity user = new UserEntity(123456L, "John Doe", "john.doe@example.com");
+
+        byte[] bytes = serializer.serialize(user);
+
+        assertEquals(user, serializer.deserialize(bytes));
+        assertTrue(bytes.length * 5 < jdkSerializer.serialize(user).length);
+    }
+
+    @Test
+    void testUser_VersionRoundTripsAndSchemaOneStaysReadable() {
+        UserEntity user = new UserEntity(42L, "John Doe", "john.doe@example.com", 7L);
+
+        assertEquals(user, serializer.deserialize(serializer.serialize(user)));
+
+        // Schema 1: no version bit; MAGIC, schema, user type, no flags, present = id|name|email
+        byte[] schemaOne = { (byte) 0xC7, 1, 1, 0, 7, 42, 1, 'J', 1, 'j' };
+        assertEquals(new UserEntity(42L, "J", "j"), serializer.deserialize(schemaOne));
+    }
+
+    @Test
+    void testUser_NullFieldsRoundTrip() {
+        UserEntity user = new UserEntity(null, "Jäne Ünicode", null);
+
+        assertEquals(user, serializer.deserialize(serializer.serialize(user)));
+    }
+
+    @Test
+    void testUserList_LargeListIsCompressedAndRoundTrips() {
+        List<UserEntity> users = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            users.add(new UserEntity(id, "User " + id, "user" + id + "@example.com"));
+        }
+
+        byte[] bytes = serializer.serialize(users);
+        byte[] uncompressed = new UserRedisSerializer(true, Integer.MAX_VALUE).serialize(users);
+
+        assertEquals(users, serializer.deserialize(bytes));
+        assertTrue(bytes.length < uncompressed.length);
+        assertEquals(new ArrayList<>(), serializer.deserialize(serializer.serialize(new ArrayList<UserEntity>())));
+    }
+
+    @Test
+    void testLegacyJdkValue_StillReadable() {
+        UserEntity user = new UserEntity(1L, "Legacy User", "legacy@example.com");
+
+        assertEquals(user, serializer.deserialize(jdkSerializer.serialize(user)));
+    }
+
+    @Test
+    void testJdkWriteMode_WritesLegacyFormatButReadsCompact() {
+        UserRedisSerializer jdkWrites = new UserRedisSerializer(false, 1024);
+        UserEntity user = new UserEntity(1L, "John Doe", "john@example.com");
+
+        assertArrayEquals(jdkSerializer.serialize(user), jdkWrites.serialize(user));
+        assertEquals(user, jdkWrites.deserialize(serializer.serialize(user)));
+    }
+
+    @Test
+    void testOtherValues_FallBackToJdk() {
+        assertEquals(42L, serializer.deserialize(serializer.serialize(42L)));
+        assertNull(serializer.deserialize(new byte[0]));
+    }
+}
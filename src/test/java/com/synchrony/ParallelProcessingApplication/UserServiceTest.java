@@ -7,9 +7,19 @@ package com.synchrony.ParallelProcessingApplication;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,14 +27,40 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.Logger;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.redis.RedisConnectionFailureException;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 
+import com.synchrony.ParallelProcessingApplication.cache.CacheRebuildLease;
+import com.synchrony.ParallelProcessingApplication.cache.HotUserSet;
+import com.synchrony.ParallelProcessingApplication.cache.RedisCachePolicy;
+import com.synchrony.ParallelProcessingApplication.cache.UserAccessTracker;
+import com.synchrony.ParallelProcessingApplication.cache.UserCacheMetrics;
+import com.synchrony.ParallelProcessingApplication.cache.UserCacheUpdateEvent;
+import com.synchrony.ParallelProcessingApplication.cache.UserNearCache;
+import com.synchrony.ParallelProcessingApplication.dataconfig.CacheProperties;
+import com.synchrony.ParallelProcessingApplication.dataconfig.LoggingProperties;
+import com.synchrony.ParallelProcessingApplication.dataconfig.PrimaryReadPins;
+import com.synchrony.ParallelProcessingApplication.dataconfig.ReadReplicaDataSource;
+import com.synchrony.ParallelProcessingApplication.dataconfig.ReplicaProperties;
 import com.synchrony.ParallelProcessingApplication.model.UserEntity;
+import com.synchrony.ParallelProcessingApplication.model.UserLookupResult;
+import com.synchrony.ParallelProcessingApplication.model.UserView;
+import com.synchrony.ParallelProcessingApplication.repository.UserCacheOutboxRepository;
 import com.synchrony.ParallelProcessingApplication.repository.UserRepository;
+import com.synchrony.ParallelProcessingApplication.service.HotPathLog;
 import com.synchrony.ParallelProcessingApplication.service.UserService;
+import com.synchrony.ParallelProcessingApplication.service.UserServiceMetrics;
+import com.synchrony.ParallelProcessingApplication.service.UserVersionMismatchException;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 public class UserServiceTest {
@@ -38,6 +74,45 @@ public class UserServiceTest {
     @Mock
     private ValueOperations<String, Object> valueOperations;
 
+    @Mock
+    private UserNearCache userNearCache;
+
+    @Mock
+    private UserCacheMetrics cacheMetrics;
+
+    @Spy
+    private CacheProperties cacheProperties = new CacheProperties();
+
+    @Spy
+    private UserServiceMetrics metrics = new UserServiceMetrics(new SimpleMeterRegistry());
+
+    @Spy
+    private HotPathLog hotPathLog = new HotPathLog(new LoggingProperties());
+
+    @Spy
+    private PrimaryReadPins primaryReadPins = new PrimaryReadPins(new ReplicaProperties());
+
+    @Spy
+    private CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private UserCacheOutboxRepository outboxRepository;
+
+    @Mock
+    private CacheRebuildLease cacheLease;
+
+    @Mock
+    private HotUserSet hotUsers;
+
+    @Mock
+    private UserAccessTracker accessTracker;
+
+    @Mock
+    private RedisCachePolicy cachePolicy;
+
     @Mock
     private Logger logger;
 
@@ -46,30 +121,106 @@ public class UserServiceTest {
 
     @BeforeEach
     public void setUp() {
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        // Some paths are served by the near cache and never reach Redis
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        // Rebuild lease disabled: every node may load
+        lenient().when(cacheLease.acquire(anyString())).thenReturn(() -> {
+        });
     }
 
     public static final String CACHE_KEY_PREFIX = "USER_";
     
-    public static final String CACHE_KEY_ALL_USERS = "ALL_USERS";
+    public static final String CACHE_KEY_SEGMENT_PREFIX = "USERS_SEGMENT_";
 
 
     @Test
     public void testSaveUser_Success() {
         UserEntity user = new UserEntity();
-        user.setId(1L);
         user.setName("John Doe");
         user.setEmail("john.doe@example.com");
+        UserEntity savedUser = new UserEntity(1L, "John Doe", "john.doe@example.com", 0L);
 
-        when(userRepository.save(any(UserEntity.class))).thenReturn(user);
+        when(userRepository.save(user)).thenReturn(savedUser);
 
         UserEntity result = userService.saveUser(user);
 
         assertNotNull(result);
         assertEquals("John Doe", result.getName());
         verify(userRepository, times(1)).save(user);
-        verify(valueOperations, times(1)).set("USER_1", user);
-        verify(redisTemplate, times(1)).delete("ALL_USERS");
+        // Redis is only written by the write-behind path after commit
+        verify(eventPublisher, times(1)).publishEvent(UserCacheUpdateEvent.saved(savedUser));
+        // ...through an outbox row written in the same transaction
+        verify(outboxRepository, times(1)).saveAll(argThat(rows -> rows.iterator().next().getUserId().equals(1L)));
+        verify(cachePolicy, never()).set(anyString(), any());
+    }
+
+    @Test
+    public void testSaveUser_UnknownIdIsSavedAsBefore() {
+        UserEntity user = new UserEntity(7L, "John Doe", "john.doe@example.com");
+        UserEntity savedUser = new UserEntity(8L, "John Doe", "john.doe@example.com", 0L);
+
+        when(userRepository.findById(7L)).thenReturn(Optional.empty());
+        when(userRepository.save(user)).thenReturn(savedUser);
+
+        assertEquals(savedUser, userService.saveUser(user));
+        verify(userRepository, never()).saveAndFlush(any(UserEntity.class));
+        verify(eventPublisher, times(1)).publishEvent(UserCacheUpdateEvent.saved(savedUser));
+    }
+
+    @Test
+    public void testSaveUser_ExistingIdIsUpdatedInPlace() {
+        UserEntity existingUser = new UserEntity(7L, "John Doe", "john@example.com", 2L);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(existingUser));
+        when(userRepository.saveAndFlush(existingUser)).thenReturn(existingUser);
+
+        UserEntity result = userService.saveUser(new UserEntity(7L, "Jane Doe", "jane@example.com"));
+
+        assertEquals("Jane Doe", result.getName());
+        verify(userRepository, never()).save(any(UserEntity.class));
+    }
+
+    @Test
+    public void testUpdateUser_UnchangedWritesNothing() {
+        UserEntity existingUser = new UserEntity(1L, "John Doe", "john.doe@example.com", 3L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(existingUser));
+
+        UserEntity result = userService.updateUser(1L, new UserEntity(1L, "John Doe", "john.doe@example.com"), 3L);
+
+        assertSame(existingUser, result);
+        verify(userRepository, never()).saveAndFlush(any(UserEntity.class));
+        verify(outboxRepository, never()).saveAll(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void testUpdateUser_StaleVersionIsRejected() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(new UserEntity(1L, "John Doe", "john@example.com", 4L)));
+        UserEntity update = new UserEntity(1L, "Jane Doe", "jane@example.com");
+
+        UserVersionMismatchException e = assertThrows(UserVersionMismatchException.class,
+                () -> userService.updateUser(1L, update, 3L));
+        assertEquals(4L, e.getCurrentVersion());
+
+        // A version read earlier and sent in the body is checked as well
+        update.setVersion(3L);
+        assertThrows(OptimisticLockingFailureException.class, () -> userService.updateUser(1L, update, null));
+        verify(userRepository, never()).saveAndFlush(any(UserEntity.class));
+    }
+
+    @Test
+    public void testPatchUser_ChangesOnlyTheFieldsSent() {
+        UserEntity existingUser = new UserEntity(1L, "John Doe", "john@example.com", 3L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(existingUser));
+        when(userRepository.saveAndFlush(existingUser)).thenReturn(existingUser);
+        UserEntity changes = new UserEntity();
+        changes.setEmail("john.doe@example.com");
+
+        UserEntity result = userService.patchUser(1L, changes, null);
+
+        assertEquals("John Doe", result.getName());
+        assertEquals("john.doe@example.com", result.getEmail());
+        verify(userRepository, times(1)).saveAndFlush(existingUser);
+        verify(eventPublisher, times(1)).publishEvent(UserCacheUpdateEvent.saved(existingUser, "john@example.com"));
     }
 
     @Test
@@ -84,7 +235,58 @@ public class UserServiceTest {
 
         assertNotNull(result);
         assertEquals("Cached User", result.getName());
-        verify(userRepository, never()).findById(1L);
+        verify(userRepository, never()).findViewById(1L);
+        verify(userNearCache, times(1)).put(eq(cachedUser), anyLong());
+    }
+
+    @Test
+    public void testGetUserByEmail_CachedIdIsReadLikeAnyUser() {
+        UserEntity nearUser = new UserEntity(1L, "Near User", "near@example.com", 0L);
+        when(valueOperations.get("USERS_EMAIL_near@example.com")).thenReturn(1L);
+        when(userNearCache.get(1L)).thenReturn(nearUser);
+
+        assertSame(nearUser, userService.getUserByEmail("Near@Example.com"));
+        verify(userRepository, never()).findViewByEmail(anyString());
+    }
+
+    @Test
+    public void testGetUserByEmail_StaleMappingFallsBackToTheIndex() {
+        // The cached ID now belongs to a user who moved to another email
+        when(valueOperations.get("USERS_EMAIL_old@example.com")).thenReturn(1L);
+        when(userNearCache.get(1L)).thenReturn(new UserEntity(1L, "Moved", "new@example.com", 1L));
+        UserEntity owner = new UserEntity(2L, "Owner", "old@example.com", 0L);
+        when(userRepository.findViewByEmail("old@example.com")).thenReturn(Optional.of(UserView.of(owner)));
+
+        assertEquals(owner, userService.getUserByEmail("old@example.com"));
+        verify(redisTemplate, times(1)).delete("USERS_EMAIL_old@example.com");
+        verify(cachePolicy, times(1)).set("USERS_EMAIL_old@example.com", 2L);
+    }
+
+    @Test
+    public void testDeleteUser_DropsItsEmailKey() {
+        UserEntity user = new UserEntity(1L, "John Doe", "john@example.com", 0L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        userService.deleteUser(1L);
+
+        verify(userRepository, times(1)).delete(user);
+        verify(outboxRepository, times(1)).saveAll(argThat(rows -> "john@example.com".equals(rows.iterator().next().getPreviousEmail())));
+    }
+
+    @Test
+    public void testGetUserById_FoundInNearCache() {
+        UserEntity nearUser = new UserEntity();
+        nearUser.setId(1L);
+        nearUser.setName("Near User");
+
+        when(userNearCache.get(1L)).thenReturn(nearUser);
+
+        UserEntity result = userService.getUserById(1L);
+
+        assertNotNull(result);
+        assertEquals("Near User", result.getName());
+        verify(valueOperations, never()).get("USER_1");
+        verify(userRepository, never()).findViewById(1L);
     }
 
     @Test
@@ -94,26 +296,157 @@ public class UserServiceTest {
         dbUser.setName("Database User");
 
         when(valueOperations.get("USER_1")).thenReturn(null);
-        when(userRepository.findById(1L)).thenReturn(Optional.of(dbUser));
+        when(userRepository.findViewById(1L)).thenReturn(Optional.of(UserView.of(dbUser)));
 
         UserEntity result = userService.getUserById(1L);
 
         assertNotNull(result);
         assertEquals("Database User", result.getName());
-        verify(userRepository, times(1)).findById(1L);
-        verify(valueOperations, times(1)).set("USER_1", dbUser);
+        verify(userRepository, times(1)).findViewById(1L);
+        verify(cachePolicy, times(1)).set("USER_1", dbUser);
+        verify(userNearCache, times(1)).put(eq(dbUser), anyLong());
+    }
+
+    @Test
+    public void testGetUserById_ReplicaReadIsCachedBriefly() throws Exception {
+        UserEntity dbUser = new UserEntity(1L, "Replica User", "replica@example.com");
+        ReadReplicaDataSource routing = new ReadReplicaDataSource(mock(DataSource.class), List.of(mock(DataSource.class)),
+                Duration.ZERO, new SimpleMeterRegistry());
+
+        when(valueOperations.get("USER_1")).thenReturn(null);
+        when(userRepository.findViewById(1L)).thenAnswer(invocation -> {
+            routing.getConnection(); // the read-only transaction is served by the replica
+            return Optional.of(UserView.of(dbUser));
+        });
+
+        assertEquals(dbUser, userService.getUserById(1L));
+        // The replica may not have a write another node has flushed yet, so the copy is not kept for the full TTL
+        verify(cachePolicy, times(1)).set("USER_1", dbUser, primaryReadPins.getReplicaCacheTtl());
+        verify(cachePolicy, never()).set("USER_1", dbUser);
+        routing.destroy();
     }
 
     @Test
     public void testGetUserById_NotFoundAnywhere() {
         when(valueOperations.get("USER_1")).thenReturn(null);
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.findViewById(1L)).thenReturn(Optional.empty());
 
         UserEntity result = userService.getUserById(1L);
 
         assertNull(result);
     }
 
+    @Test
+    public void testGetUserById_RedisFailureFallsBackToDB() {
+        UserEntity dbUser = new UserEntity(1L, "Database User", "db@example.com");
+
+        when(valueOperations.get("USER_1")).thenThrow(new RedisConnectionFailureException("Connection refused"));
+        doThrow(new RedisConnectionFailureException("Connection refused")).when(cachePolicy).set("USER_1", dbUser);
+        when(userRepository.findViewById(1L)).thenReturn(Optional.of(UserView.of(dbUser)));
+
+        assertEquals(dbUser, userService.getUserById(1L));
+    }
+
+    @Test
+    public void testGetUserById_RedisBreakerOpenSkipsRedis() {
+        UserEntity dbUser = new UserEntity(1L, "Database User", "db@example.com");
+        circuitBreakerRegistry.circuitBreaker(UserService.REDIS_BREAKER).transitionToOpenState();
+
+        when(userRepository.findViewById(1L)).thenReturn(Optional.of(UserView.of(dbUser)));
+
+        assertEquals(dbUser, userService.getUserById(1L));
+        verify(valueOperations, never()).get(anyString());
+        verify(cacheLease, never()).acquire(anyString());
+        verify(cachePolicy, never()).set(anyString(), any());
+    }
+
+    @Test
+    public void testGetUserById_DatabaseBreakerOpenServesNearCopyOrFailsFast() {
+        UserEntity nearUser = new UserEntity(1L, "Near User", "near@example.com");
+        circuitBreakerRegistry.circuitBreaker(UserService.DATABASE_BREAKER).transitionToOpenState();
+
+        when(valueOperations.get(anyString())).thenReturn(null);
+        when(userNearCache.peek(1L)).thenReturn(nearUser);
+
+        assertEquals(nearUser, userService.getUserById(1L));
+        assertThrows(CallNotPermittedException.class, () -> userService.getUserById(2L));
+        verify(userRepository, never()).findViewById(anyLong());
+    }
+
+    @Test
+    public void testGetUserById_ConcurrentMissesLoadOnce() throws Exception {
+        int callers = 16;
+        UserEntity dbUser = new UserEntity(1L, "Database User", "db@example.com");
+        CountDownLatch missed = new CountDownLatch(callers);
+
+        when(userNearCache.get(1L)).thenAnswer(invocation -> {
+            missed.countDown();
+            return null;
+        });
+        when(valueOperations.get("USER_1")).thenReturn(null);
+        when(userRepository.findViewById(1L)).thenAnswer(invocation -> {
+            // Hold the load until every caller has missed and joined it
+            missed.await(5, TimeUnit.SECONDS);
+            Thread.sleep(200);
+            return Optional.of(UserView.of(dbUser));
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<UserEntity>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> userService.getUserById(1L)));
+            }
+            for (Future<UserEntity> result : results) {
+                assertEquals(dbUser, result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(userRepository, times(1)).findViewById(1L);
+        verify(valueOperations, times(1)).get("USER_1");
+        verify(cachePolicy, times(1)).set("USER_1", dbUser);
+    }
+
+    @Test
+    public void testGetUserById_WaitsForRebuildByLeaseHolder() {
+        UserEntity rebuiltUser = new UserEntity(1L, "Rebuilt User", "rebuilt@example.com");
+
+        when(valueOperations.get("USER_1")).thenReturn(null);
+        when(cacheLease.acquire("USER_1")).thenReturn(null);
+        when(cacheLease.awaitRebuild("USER_1")).thenReturn(rebuiltUser);
+
+        UserEntity result = userService.getUserById(1L);
+
+        assertEquals(rebuiltUser, result);
+        verify(userRepository, never()).findViewById(anyLong());
+    }
+
+    @Test
+    public void testGetUsersByIds_MultiGetThenSingleQueryInRequestOrder() {
+        UserEntity nearUser = new UserEntity(3L, "Near User", "near@example.com");
+        UserEntity cachedUser = new UserEntity(1L, "Cached User", "cached@example.com");
+        UserEntity dbUser = new UserEntity(2L, "Database User", "db@example.com");
+
+        when(userNearCache.get(anyLong())).thenAnswer(invocation -> invocation.getArgument(0).equals(3L) ? nearUser : null);
+        when(valueOperations.multiGet(List.of("USER_2", "USER_1", "USER_4"))).thenReturn(Arrays.asList(null, cachedUser, null));
+        when(userRepository.findViewsByIdIn(List.of(2L, 4L))).thenReturn(List.of(UserView.of(dbUser)));
+
+        List<UserLookupResult> result = userService.getUsersByIds(List.of(2L, 3L, 1L, 4L));
+
+        assertEquals(List.of(2L, 3L, 1L, 4L), result.stream().map(UserLookupResult::getId).toList());
+        assertEquals(UserView.of(dbUser), result.get(0).getUser());
+        assertEquals(UserView.of(nearUser), result.get(1).getUser());
+        assertEquals(UserView.of(cachedUser), result.get(2).getUser());
+        assertFalse(result.get(3).isFound());
+        assertNull(result.get(3).getUser());
+        verify(userRepository, times(1)).findViewsByIdIn(List.of(2L, 4L));
+        verify(userRepository, never()).findViewById(anyLong());
+        verify(cachePolicy, times(1)).setAll(Map.of("USER_2", dbUser));
+        verify(hotUsers, times(4)).record(anyLong());
+    }
+
     @Test
     public void testGetAllUsers_FoundInCache() {
         List<UserEntity> cachedUsers = new ArrayList<>();
@@ -122,13 +455,13 @@ public class UserServiceTest {
         user.setName("Cached User");
         cachedUsers.add(user);
 
-        when(valueOperations.get("ALL_USERS")).thenReturn(cachedUsers);
+        when(valueOperations.get("USERS_SEGMENT_0")).thenReturn(cachedUsers);
 
-        List<UserEntity> result = userService.getAllUsers();
+        List<UserEntity> result = userService.getAllUsers(0L, 1);
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(userRepository, never()).findAll();
+        verify(userRepository, never()).findViewsByIdBetween(anyLong(), anyLong());
     }
 
     @Test
@@ -139,16 +472,34 @@ public class UserServiceTest {
         user.setName("Database User");
         dbUsers.add(user);
 
-        when(valueOperations.get("ALL_USERS")).thenReturn(null);
-        when(userRepository.findAll()).thenReturn(dbUsers);
+        when(valueOperations.get("USERS_SEGMENT_0")).thenReturn(null);
+        when(userRepository.findViewsByIdBetween(0L, 499L)).thenReturn(List.of(UserView.of(user)));
 
-        List<UserEntity> result = userService.getAllUsers();
+        List<UserEntity> result = userService.getAllUsers(0L, 1);
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(userRepository, times(1)).findAll();
-        verify(valueOperations, times(1)).set("ALL_USERS", dbUsers);
+        verify(userRepository, times(1)).findViewsByIdBetween(0L, 499L);
+        verify(cachePolicy, times(1)).set("USERS_SEGMENT_0", dbUsers);
     }
+
+    @Test
+    public void testGetAllUsers_SkipsEmptySegmentsAndStopsAtEnd() {
+        UserEntity first = new UserEntity(3L, "First", "first@example.com");
+        UserEntity far = new UserEntity(1200L, "Far", "far@example.com");
+
+        when(valueOperations.get("USERS_SEGMENT_0")).thenReturn(new ArrayList<>(List.of(first)));
+        when(valueOperations.get("USERS_SEGMENT_1")).thenReturn(new ArrayList<>());
+        when(userRepository.findFirstByIdGreaterThanOrderByIdAsc(999L)).thenReturn(Optional.of(far));
+        when(valueOperations.get("USERS_SEGMENT_2")).thenReturn(new ArrayList<>(List.of(far)));
+        when(valueOperations.get("USERS_SEGMENT_3")).thenReturn(new ArrayList<>());
+        when(userRepository.findFirstByIdGreaterThanOrderByIdAsc(1999L)).thenReturn(Optional.empty());
+
+        List<UserEntity> result = userService.getAllUsers(0L, 10);
+
+        assertEquals(List.of(first, far), result);
+    }
+
 //    @Test
 //    public void testUpdateUser_Success() {
 //        Long userId = 1L;
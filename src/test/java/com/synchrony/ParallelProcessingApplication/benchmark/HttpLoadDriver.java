@@ -0,0 +1,102 @@
+package com.synchrony.ParallelProcessingApplication.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Closed-loop HTTP load: {@code concurrency} clients each send a GET, wait for the response and
+ * send the next one until {@code seconds} have passed. Reports throughput, p50/p99 latency and
+ * errors on stdout and appends a JSON line to {@code target/loadtest-results.jsonl}.
+ */
+class HttpLoadDriver {
+
+    private final String label;
+    private final int concurrency;
+    private final int seconds;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newFixedThreadPool(32))
+            .build();
+
+    HttpLoadDriver(String label, int concurrency, int seconds) {
+        this.label = label;
+        this.concurrency = concurrency;
+        this.seconds = seconds;
+    }
+
+    void run(String scenario, Supplier<String> urls) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicLong errors = new AtomicLong();
+        List<long[]> latenciesPerWorker = new ArrayList<>();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            long[] latencies = new long[1 << 16];
+            latenciesPerWorker.add(latencies);
+            workers.execute(() -> {
+                int count = 0;
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(urls.get()))
+                                .timeout(Duration.ofSeconds(30)).GET().build(), HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 500) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (count < latencies.length - 1) {
+                        latencies[++count] = System.nanoTime() - start;
+                    }
+                    latencies[0] = count; // slot 0 holds the sample count
+                }
+            });
+        }
+        workers.shutdown();
+        assertTrue(workers.awaitTermination(seconds + 60L, TimeUnit.SECONDS));
+
+        long total = latenciesPerWorker.stream().mapToLong(l -> l[0]).sum();
+        long[] all = new long[(int) total];
+        int offset = 0;
+        for (long[] latencies : latenciesPerWorker) {
+            System.arraycopy(latencies, 1, all, offset, (int) latencies[0]);
+            offset += (int) latencies[0];
+        }
+        Arrays.sort(all);
+        double throughput = total / (double) seconds;
+        double p50 = all.length == 0 ? 0 : all[all.length / 2] / 1e6;
+        double p99 = all.length == 0 ? 0 : all[(int) (all.length * 0.99)] / 1e6;
+
+        System.out.printf("%s/%s: %d clients, %.0f req/s, p50 %.1f ms, p99 %.1f ms, %d errors%n",
+                label, scenario, concurrency, throughput, p50, p99, errors.get());
+        String json = String.format(
+                "{\"label\":\"%s\",\"scenario\":\"%s\",\"concurrency\":%d,\"seconds\":%d,\"requests\":%d,"
+                        + "\"throughput\":%.1f,\"p50Ms\":%.2f,\"p99Ms\":%.2f,\"errors\":%d}%n",
+                label, scenario, concurrency, seconds, total, throughput, p50, p99, errors.get());
+        Files.createDirectories(Path.of("target"));
+        Files.writeString(Path.of("target", "loadtest-results.jsonl"), json, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
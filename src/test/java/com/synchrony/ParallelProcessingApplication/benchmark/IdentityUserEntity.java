@@ -0,0 +1,29 @@
+package com.synchrony.ParallelProcessingApplication.benchmark;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+
+// Copy of UserEntity with the old IDENTITY key, the "before" side of the insert benchmark
+@Entity
+public class IdentityUserEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String name;
+    private String email;
+
+    public IdentityUserEntity() {
+    }
+
+    public IdentityUserEntity(String name, String email) {
+        this.name = name;
+        this.email = email;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
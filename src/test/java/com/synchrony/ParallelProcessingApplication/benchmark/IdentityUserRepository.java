@@ -0,0 +1,6 @@
+package com.synchrony.ParallelProcessingApplication.benchmark;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface IdentityUserRepository extends JpaRepository<IdentityUserEntity, Long> {
+}
@@ -0,0 +1,71 @@
+package com.synchrony.ParallelProcessingApplication.benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.synchrony.ParallelProcessingApplication.cache.UserAccessTracker;
+import com.synchrony.ParallelProcessingApplication.dataconfig.CacheProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Cost of recording a read in the access tracker from one thread per core, for Zipf-distributed IDs (most
+ * reads hit a few hot users, the worst case for counter contention) and, for comparison, for a
+ * single ID read by every thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(Threads.MAX)
+@Fork(1)
+public class UserAccessTrackerBenchmark {
+
+    private static final int IDS = 1 << 16;
+
+    @Param({ "zipf", "single" })
+    public String distribution;
+
+    @Param({ "1.0", "0.1" })
+    public double sampleRate;
+
+    private UserAccessTracker tracker;
+    private long[] ids;
+
+    @Setup
+    public void setUp() {
+        CacheProperties cacheProperties = new CacheProperties();
+        cacheProperties.getHotKeys().setSampleRate(sampleRate);
+        tracker = new UserAccessTracker(cacheProperties, new SimpleMeterRegistry());
+        ids = new long[IDS];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < IDS; i++) {
+            // Zipf with s = 1 over a million users, by inverse transform of the continuous approximation
+            ids[i] = "single".equals(distribution) ? 1L : (long) Math.pow(1_000_000, random.nextDouble());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next = (int) Thread.currentThread().getId() * 7919;
+    }
+
+    @Benchmark
+    public void record(Cursor cursor) {
+        tracker.record(ids[cursor.next++ & (IDS - 1)]);
+    }
+}
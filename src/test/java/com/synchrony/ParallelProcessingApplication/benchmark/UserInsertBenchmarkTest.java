@@ -0,0 +1,78 @@
+package com.synchrony.ParallelProcessingApplication.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.synchrony.ParallelProcessingApplication.model.UserEntity;
+import com.synchrony.ParallelProcessingApplication.repository.UserRepository;
+
+/**
+ * Insert throughput of {@code saveAll} with the old IDENTITY key versus the pooled sequence.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark}. Both sides use the same batch size and chunking as the
+ * bulk endpoint; only the ID strategy differs.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserInsertBenchmarkTest {
+
+    private static final int ROWS = 50_000;
+    private static final int CHUNK = 1_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private IdentityUserRepository identityUserRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void insertThroughput_identityVersusPooledSequence() {
+        // Warm up both paths before measuring
+        insert(5_000, i -> new IdentityUserEntity("warm" + i, "warm" + i + "@example.com"), identityUserRepository::saveAll);
+        insert(5_000, i -> new UserEntity(null, "warm" + i, "warm" + i + "@example.com"), userRepository::saveAll);
+
+        double identity = insert(ROWS, i -> new IdentityUserEntity("user" + i, "user" + i + "@example.com"),
+                identityUserRepository::saveAll);
+        double pooled = insert(ROWS, i -> new UserEntity(null, "user" + i, "user" + i + "@example.com"),
+                userRepository::saveAll);
+
+        System.out.printf("saveAll of %d rows: IDENTITY %.0f rows/s, pooled sequence %.0f rows/s (%.2fx)%n",
+                ROWS, identity, pooled, pooled / identity);
+        assertEquals(ROWS + 5_000, identityUserRepository.count());
+        assertEquals(ROWS + 5_000, userRepository.count());
+    }
+
+    // Insert rows in CHUNK-sized transactions and return rows per second
+    private <T> double insert(int rows, Function<Integer, T> factory, Function<List<T>, List<T>> saveAll) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long start = System.nanoTime();
+        for (int from = 0; from < rows; from += CHUNK) {
+            List<T> chunk = new ArrayList<>(CHUNK);
+            for (int i = from; i < Math.min(from + CHUNK, rows); i++) {
+                chunk.add(factory.apply(i));
+            }
+            transaction.executeWithoutResult(status -> saveAll.apply(chunk));
+        }
+        return rows / ((System.nanoTime() - start) / 1e9);
+    }
+}
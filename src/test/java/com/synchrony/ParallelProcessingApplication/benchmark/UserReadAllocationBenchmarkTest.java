@@ -0,0 +1,83 @@
+package com.synchrony.ParallelProcessingApplication.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.synchrony.ParallelProcessingApplication.model.UserEntity;
+import com.synchrony.ParallelProcessingApplication.repository.UserRepository;
+
+/**
+ * Heap allocated and time taken to read the whole user table as managed entities versus
+ * {@code UserView} projections.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Dtest=UserReadAllocationBenchmarkTest}. Allocation is measured
+ * per thread with {@code ThreadMXBean#getCurrentThreadAllocatedBytes}, the same counter allocation
+ * profilers sample, and includes the JDBC driver's own objects for each row.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserReadAllocationBenchmarkTest {
+
+    private static final int ROWS = 100_000;
+    private static final int CHUNK = 1_000;
+    private static final int RUNS = 5;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void readAllocation_managedEntitiesVersusProjection() {
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        for (int from = 0; from < ROWS; from += CHUNK) {
+            List<UserEntity> chunk = new ArrayList<>(CHUNK);
+            for (int i = from; i < from + CHUNK; i++) {
+                chunk.add(new UserEntity(null, "User " + i, "user" + i + "@example.com"));
+            }
+            readWrite.executeWithoutResult(status -> userRepository.saveAll(chunk));
+        }
+
+        report("entities, read-write transaction", () -> readWrite.execute(status -> userRepository.findAll().size()));
+        report("entities, read-only transaction", () -> readOnly.execute(status -> userRepository.findAll().size()));
+        report("UserView projection", () -> userRepository.findViewsByIdBetween(0L, Long.MAX_VALUE).size());
+    }
+
+    // Best of RUNS after one warm-up run; allocation barely varies, time does
+    private void report(String label, Supplier<Integer> read) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assertEquals(ROWS, read.get());
+        long bytes = Long.MAX_VALUE;
+        long nanos = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            read.get();
+            nanos = Math.min(nanos, System.nanoTime() - start);
+            bytes = Math.min(bytes, threads.getCurrentThreadAllocatedBytes() - allocatedBefore);
+        }
+        System.out.printf("Read %d users, %s: %.1f MB allocated (%d bytes/row), %d ms%n", ROWS, label,
+                bytes / 1e6, bytes / ROWS, nanos / 1_000_000);
+    }
+}
@@ -0,0 +1,81 @@
+package com.synchrony.ParallelProcessingApplication.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.synchrony.ParallelProcessingApplication.cache.UserRedisSerializer;
+import com.synchrony.ParallelProcessingApplication.model.UserEntity;
+
+/**
+ * JDK serialization versus the compact user codec, for one user and for a cached segment of users.
+ * The stored payload size (Redis memory per value) is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserRedisSerializerBenchmark {
+
+    // compact-raw disables compression to separate codec cost from deflate cost
+    @Param({ "jdk", "compact", "compact-raw" })
+    public String format;
+
+    @Param({ "1", "500" })
+    public int users;
+
+    private RedisSerializer<Object> serializer;
+    private Object value;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() {
+        switch (format) {
+        case "jdk":
+            serializer = new JdkSerializationRedisSerializer();
+            break;
+        case "compact":
+            serializer = new UserRedisSerializer(true, 1024);
+            break;
+        default:
+            serializer = new UserRedisSerializer(true, Integer.MAX_VALUE);
+        }
+        if (users == 1) {
+            value = new UserEntity(123456L, "John Doe", "john.doe@example.com");
+        } else {
+            List<UserEntity> segment = new ArrayList<>(users);
+            for (long id = 1; id <= users; id++) {
+                segment.add(new UserEntity(id, "User " + id, "user" + id + "@example.com"));
+            }
+            value = segment;
+        }
+        serialized = serializer.serialize(value);
+        System.out.printf("%n%s payload for %d user(s): %d bytes%n", format, users, serialized.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(serialized);
+    }
+}
@@ -0,0 +1,177 @@
+package com.synchrony.ParallelProcessingApplication.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import com.github.fppt.jedismock.RedisServer;
+import com.synchrony.ParallelProcessingApplication.ParallelProcessingApplication;
+import com.synchrony.ParallelProcessingApplication.cache.UserNearCache;
+import com.synchrony.ParallelProcessingApplication.model.UserEntity;
+import com.synchrony.ParallelProcessingApplication.repository.UserRepository;
+import com.synchrony.ParallelProcessingApplication.service.UserService;
+
+/**
+ * {@link UserService} read and write paths against the real application context, with H2 in place of
+ * MySQL and an in-process Redis server in place of Redis, so it runs offline.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Djmh.includes=UserServiceBenchmark}; results are written to
+ * {@code target/jmh-result.json}. Absolute numbers are not comparable to production (no network hop,
+ * in-memory database); compare them across commits on the same machine to catch regressions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    // Users in the table; getUserById stays on a hot set that fits the near cache
+    @Param({ "1000", "100000" })
+    public int rows;
+
+    private static final int HOT_USERS = 1000;
+    private static final int PAGE_SIZE = 100;
+
+    private RedisServer redisServer;
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserNearCache userNearCache;
+    private RedisTemplate<String, Object> redisTemplate;
+    private long firstId;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void startApplication() throws IOException {
+        redisServer = RedisServer.newRedisServer().start();
+        // Command-line arguments so they take precedence over application.properties
+        context = new SpringApplicationBuilder(ParallelProcessingApplication.class, InProcessRedis.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.main.allow-bean-definition-overriding=true",
+                        "--benchmark.redis.port=" + redisServer.getBindPort(),
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--app.cache.policy.key-count-interval=0",
+                        "--logging.level.com.synchrony=WARN");
+        userService = context.getBean(UserService.class);
+        userNearCache = context.getBean(UserNearCache.class);
+        redisTemplate = context.getBean("redisTemplate", RedisTemplate.class);
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        for (int from = 0; from < rows; from += 1000) {
+            List<UserEntity> chunk = new ArrayList<>(1000);
+            for (int i = from; i < Math.min(rows, from + 1000); i++) {
+                chunk.add(new UserEntity(null, "User " + i, "user" + i + "@example.com"));
+            }
+            userRepository.saveAll(chunk);
+        }
+        firstId = userRepository.findFirstByIdGreaterThanOrderByIdAsc(0L).orElseThrow().getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() throws IOException {
+        context.close();
+        redisServer.stop();
+    }
+
+    private long hotId() {
+        return firstId + ThreadLocalRandom.current().nextInt(Math.min(rows, HOT_USERS));
+    }
+
+    private long anyId() {
+        return firstId + ThreadLocalRandom.current().nextInt(rows);
+    }
+
+    @Benchmark
+    public UserEntity getUserByIdNearCacheHit() {
+        return userService.getUserById(hotId());
+    }
+
+    @Benchmark
+    public UserEntity getUserByIdRedisHit() {
+        long id = hotId();
+        userNearCache.invalidate(id);
+        return userService.getUserById(id);
+    }
+
+    @Benchmark
+    public UserEntity getUserByIdMiss(ColdUser coldUser) {
+        return userService.getUserById(coldUser.id);
+    }
+
+    @Benchmark
+    public List<UserEntity> getAllUsersPage() {
+        return userService.getAllUsers(anyId() - 1, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public long streamAllUsers() {
+        LongAdder count = new LongAdder();
+        userService.streamAllUsers(user -> count.increment());
+        return count.sum();
+    }
+
+    @Benchmark
+    public UserEntity saveUser() {
+        long n = ThreadLocalRandom.current().nextLong();
+        return userService.saveUser(new UserEntity(null, "New " + n, "new" + n + "@example.com"));
+    }
+
+    // Includes publishing the cache update; the Redis write and invalidation run behind it on the executor
+    @Benchmark
+    public UserEntity updateUser() {
+        long id = hotId();
+        return userService.updateUser(id, new UserEntity(id, "Updated " + System.nanoTime(), "updated" + id + "@example.com"));
+    }
+
+    // A user that is in neither cache tier, so the lookup goes to the database
+    @State(Scope.Thread)
+    public static class ColdUser {
+        long id;
+
+        @Setup(Level.Invocation)
+        public void evict(UserServiceBenchmark benchmark) {
+            id = benchmark.anyId();
+            benchmark.userNearCache.invalidate(id);
+            benchmark.redisTemplate.delete(UserService.CACHE_KEY_PREFIX + id);
+        }
+    }
+
+    // Registered after the application's RedisConfig so its connection factory points at the in-process server
+    static class InProcessRedis {
+        @Bean
+        public RedisConnectionFactory redisConnectionFactory(@Value("${benchmark.redis.port}") int port) {
+            return new LettuceConnectionFactory("localhost", port);
+        }
+    }
+}
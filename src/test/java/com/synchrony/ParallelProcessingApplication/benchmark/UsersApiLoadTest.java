@@ -0,0 +1,42 @@
+package com.synchrony.ParallelProcessingApplication.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Closed-loop HTTP load test for the users API, used to compare server configurations such as
+ * platform versus virtual threads ({@code spring.threads.virtual.enabled}, Java 21+), or the
+ * blocking application (port 8080) versus {@code ReactiveUsersApplication} (port 8081).
+ * <p>
+ * Start the application in the configuration under test, then run for example
+ * <pre>
+ * mvn test -Pbenchmark -Dtest=UsersApiLoadTest -Dloadtest.baseUrl=http://localhost:8080 \
+ *     -Dloadtest.label=virtual -Dloadtest.concurrency=1000 -Dloadtest.seconds=60
+ * </pre>
+ * Each scenario reports throughput, p50/p99 latency and errors on stdout and appends a JSON line
+ * to {@code target/loadtest-results.jsonl}, so runs of different configurations can be compared.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "loadtest.baseUrl", matches = ".+")
+class UsersApiLoadTest {
+
+    private final String baseUrl = System.getProperty("loadtest.baseUrl");
+    private final long maxUserId = Long.getLong("loadtest.maxUserId", 1000L);
+
+    private final HttpLoadDriver driver = new HttpLoadDriver(System.getProperty("loadtest.label", "default"),
+            Integer.getInteger("loadtest.concurrency", 500), Integer.getInteger("loadtest.seconds", 30));
+
+    @Test
+    void getUserById() throws Exception {
+        driver.run("getUserById", () -> baseUrl + "/users/getuser/" + ThreadLocalRandom.current().nextLong(1, maxUserId + 1));
+    }
+
+    @Test
+    void getAllUsers() throws Exception {
+        driver.run("getAllUsers", () -> baseUrl + "/users/getAll?afterId="
+                + ThreadLocalRandom.current().nextLong(0, maxUserId) + "&size=100");
+    }
+}
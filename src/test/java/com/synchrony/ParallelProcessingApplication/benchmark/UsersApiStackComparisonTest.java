@@ -0,0 +1,125 @@
+package com.synchrony.ParallelProcessingApplication.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.github.fppt.jedismock.RedisServer;
+import com.synchrony.ParallelProcessingApplication.ParallelProcessingApplication;
+import com.synchrony.ParallelProcessingApplication.model.UserEntity;
+import com.synchrony.ParallelProcessingApplication.reactive.ReactiveUsersApplication;
+import com.synchrony.ParallelProcessingApplication.repository.UserRepository;
+
+/**
+ * Same HTTP load against the blocking users API (Tomcat, JPA, RedisTemplate) and the reactive one
+ * (Netty, R2DBC, ReactiveRedisTemplate), both started in this JVM on one in-memory H2 database and
+ * one in-process Redis server. The near cache is off so every lookup makes the Redis hop on both stacks.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Dtest=UsersApiStackComparisonTest -Dloadtest.concurrency=1000};
+ * results go to stdout and {@code target/loadtest-results.jsonl} labelled {@code blocking} and
+ * {@code reactive}. The load generator shares the machine with both servers, so compare the two
+ * stacks with each other rather than against production numbers; for those, run
+ * {@link UsersApiLoadTest} against deployed instances.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UsersApiStackComparisonTest {
+
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 500);
+    private final int seconds = Integer.getInteger("loadtest.seconds", 30);
+    private final int rows = Integer.getInteger("loadtest.rows", 10_000);
+
+    private RedisServer redisServer;
+    private ConfigurableApplicationContext blocking;
+    private ConfigurableApplicationContext reactive;
+    private long firstId;
+
+    @BeforeAll
+    void startStacks() throws Exception {
+        redisServer = RedisServer.newRedisServer().start();
+        blocking = new SpringApplicationBuilder(ParallelProcessingApplication.class,
+                UserServiceBenchmark.InProcessRedis.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--server.port=0",
+                        "--spring.main.allow-bean-definition-overriding=true",
+                        "--benchmark.redis.port=" + redisServer.getBindPort(),
+                        "--spring.datasource.url=jdbc:h2:mem:stacks;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--app.cache.near.enabled=false",
+                        "--app.cache.policy.key-count-interval=0",
+                        // Load shedding off, the reactive stack has none; pages still run on the usersList pool
+                        "--resilience4j.ratelimiter.instances.usersRead.limit-for-period=" + Integer.MAX_VALUE,
+                        "--resilience4j.ratelimiter.instances.usersList.limit-for-period=" + Integer.MAX_VALUE,
+                        "--resilience4j.bulkhead.instances.usersRead.max-concurrent-calls=" + concurrency,
+                        "--resilience4j.thread-pool-bulkhead.instances.usersList.queue-capacity=" + concurrency,
+                        "--resilience4j.timelimiter.instances.usersList.timeout-duration=" + seconds + "s",
+                        "--logging.level.com.synchrony=WARN");
+        // Same in-memory database, opened through R2DBC
+        reactive = new SpringApplicationBuilder(ReactiveUsersApplication.class)
+                .profiles(ReactiveUsersApplication.PROFILE)
+                .web(WebApplicationType.REACTIVE)
+                .run("--server.port=0",
+                        "--spring.r2dbc.url=r2dbc:h2:mem:///stacks?options=DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.r2dbc.username=sa",
+                        "--spring.r2dbc.password=",
+                        "--spring.data.redis.host=localhost",
+                        "--spring.data.redis.port=" + redisServer.getBindPort(),
+                        "--logging.level.com.synchrony=WARN");
+
+        UserRepository userRepository = blocking.getBean(UserRepository.class);
+        for (int from = 0; from < rows; from += 1000) {
+            List<UserEntity> chunk = new ArrayList<>(1000);
+            for (int i = from; i < Math.min(rows, from + 1000); i++) {
+                chunk.add(new UserEntity(null, "User " + i, "user" + i + "@example.com"));
+            }
+            userRepository.saveAll(chunk);
+        }
+        firstId = userRepository.findFirstByIdGreaterThanOrderByIdAsc(0L).orElseThrow().getId();
+    }
+
+    @AfterAll
+    void stopStacks() throws Exception {
+        reactive.close();
+        blocking.close();
+        redisServer.stop();
+    }
+
+    @Test
+    void getUserById() throws Exception {
+        for (ConfigurableApplicationContext stack : List.of(blocking, reactive)) {
+            String baseUrl = baseUrl(stack);
+            driver(stack).run("getUserById", () -> baseUrl + "/users/getuser/"
+                    + (firstId + ThreadLocalRandom.current().nextInt(rows)));
+        }
+    }
+
+    @Test
+    void getAllUsers() throws Exception {
+        for (ConfigurableApplicationContext stack : List.of(blocking, reactive)) {
+            String baseUrl = baseUrl(stack);
+            driver(stack).run("getAllUsers", () -> baseUrl + "/users/getAll?afterId="
+                    + (firstId + ThreadLocalRandom.current().nextInt(rows)) + "&size=100");
+        }
+    }
+
+    private HttpLoadDriver driver(ConfigurableApplicationContext stack) {
+        return new HttpLoadDriver(stack == blocking ? "blocking" : "reactive", concurrency, seconds);
+    }
+
+    private static String baseUrl(ConfigurableApplicationContext stack) {
+        return "http://localhost:" + stack.getEnvironment().getProperty("local.server.port");
+    }
+}